@@ -15,6 +15,7 @@ import org.slf4j.MarkerFactory;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ConfigTracker {
     private static final Logger LOGGER = LogUtils.getLogger();
@@ -23,6 +24,7 @@ public class ConfigTracker {
     private final ConcurrentHashMap<String, ModConfig> fileMap;
     private final EnumMap<ModConfig.Type, Set<ModConfig>> configSets;
     private final ConcurrentHashMap<String, Map<ModConfig.Type, ModConfig>> configsByMod;
+    private final AtomicInteger generation = new AtomicInteger();
 
     private ConfigTracker() {
         this.fileMap = new ConcurrentHashMap<>();
@@ -97,4 +99,16 @@ public class ConfigTracker {
     public ConcurrentHashMap<String, ModConfig> fileMap() {
         return fileMap;
     }
+
+    void configChanged() {
+        this.generation.incrementAndGet();
+    }
+
+    /**
+     * Incremented every time a tracked config is loaded, saved, reloaded or unloaded.
+     * Lets consumers cache data derived from the config files until it changes.
+     */
+    public int getGeneration() {
+        return this.generation.get();
+    }
 }
@@ -74,11 +74,13 @@ public class ModConfig
     }
 
     void fireEvent(final IConfigEvent configEvent) {
+        ConfigTracker.INSTANCE.configChanged();
         this.container.dispatchConfigEvent(configEvent);
     }
 
     public void save() {
         ((CommentedFileConfig)this.configData).save();
+        ConfigTracker.INSTANCE.configChanged();
     }
 
     public Path getFullPath() {
@@ -10,13 +10,12 @@ import com.mojang.serialization.DataResult;
 import com.mojang.serialization.Dynamic;
 import it.unimi.dsi.fastutil.ints.Int2ObjectSortedMap;
 import it.unimi.dsi.fastutil.ints.IntSortedSet;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /*
  * Optimizing functions
@@ -63,7 +62,9 @@ public class DataFixerUpper implements DataFixer {
     private final Int2ObjectSortedMap<Schema> schemas;
     private final List<DataFix> globalList;
     private final IntSortedSet fixerVersions;
-    private final Long2ObjectMap<TypeRewriteRule> rules = Long2ObjectMaps.synchronize(new Long2ObjectOpenHashMap<>());
+    // Magma - concurrent caches instead of a single synchronized map shared by every worker thread
+    private final ConcurrentMap<Long, TypeRewriteRule> rules = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UpdatePlanKey, UpdatePlan> plans = new ConcurrentHashMap<>();
 
     protected DataFixerUpper(final Int2ObjectSortedMap<Schema> schemas, final List<DataFix> globalList, final IntSortedSet fixerVersions) {
         this.schemas = schemas;
@@ -74,14 +75,31 @@ public class DataFixerUpper implements DataFixer {
     @Override
     public <T> Dynamic<T> update(final DSL.TypeReference type, final Dynamic<T> input, final int version, final int newVersion) {
         if (version < newVersion) {
-            final Type<?> dataType = getType(type, version);
-            final DataResult<T> read = dataType.readAndWrite(input.getOps(), getType(type, newVersion), getRule(version, newVersion), OPTIMIZATION_RULE, input.getValue());
+            final UpdatePlan plan = getPlan(type, version, newVersion);
+            final DataResult<T> read = plan.from().readAndWrite(input.getOps(), plan.to(), plan.rule(), OPTIMIZATION_RULE, input.getValue());
             final T result = read.resultOrPartial(LOGGER::error).orElse(input.getValue());
             return new Dynamic<>(input.getOps(), result);
         }
         return input;
     }
 
+    // Magma start - memoize the resolved types and rule for each (type, version, newVersion)
+    private UpdatePlan getPlan(final DSL.TypeReference type, final int version, final int newVersion) {
+        final UpdatePlanKey key = new UpdatePlanKey(type.typeName(), version, newVersion);
+        final UpdatePlan plan = plans.get(key);
+        if (plan != null) {
+            return plan;
+        }
+        return plans.computeIfAbsent(key, k -> new UpdatePlan(getType(type, version), getType(type, newVersion), getRule(version, newVersion)));
+    }
+
+    private record UpdatePlanKey(String typeName, int version, int newVersion) {
+    }
+
+    private record UpdatePlan(Type<?> from, Type<?> to, TypeRewriteRule rule) {
+    }
+    // Magma end
+
     @Override
     public Schema getSchema(final int key) {
         return schemas.get(getLowestSchemaSameVersion(schemas, key));
@@ -116,6 +134,10 @@ public class DataFixerUpper implements DataFixer {
         final int expandedDataVersion = DataFixUtils.makeKey(dataVersion);
 
         final long key = (long) expandedVersion << 32 | expandedDataVersion;
+        final TypeRewriteRule cached = rules.get(key);
+        if (cached != null) {
+            return cached;
+        }
         return rules.computeIfAbsent(key, k -> {
             final List<TypeRewriteRule> rules = Lists.newArrayList();
             for (final DataFix fix : globalList) {
@@ -13,6 +13,7 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.DispenserBlockEntity;
 import net.minecraft.world.level.block.entity.HopperBlockEntity;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.common.util.LazyOptional;
 import net.minecraft.core.Direction;
 import net.minecraft.core.BlockPos;
 import net.minecraft.util.Mth;
@@ -22,6 +23,7 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.magmafoundation.magma.configuration.MagmaConfig;
 
 import java.util.Optional;
 
@@ -34,7 +36,7 @@ public class VanillaInventoryCodeHooks
     @Nullable
     public static Boolean extractHook(Level level, Hopper dest)
     {
-        return getItemHandler(level, dest, Direction.UP)
+        return getItemHandler(level, dest, Direction.UP, dest instanceof HopperBlockEntity hopper ? hopper.extractSourceCache : null) // Magma
                 .map(itemHandlerResult -> {
                     IItemHandler handler = itemHandlerResult.getKey();
 
@@ -104,7 +106,7 @@ public class VanillaInventoryCodeHooks
     public static boolean insertHook(HopperBlockEntity hopper)
     {
         Direction hopperFacing = hopper.getBlockState().getValue(HopperBlock.FACING);
-        return getItemHandler(hopper.getLevel(), hopper, hopperFacing)
+        return getItemHandler(hopper.getLevel(), hopper, hopperFacing, hopper.insertTargetCache) // Magma
                 .map(destinationResult -> {
                     IItemHandler itemHandler = destinationResult.getKey();
                     Object destination = destinationResult.getValue();
@@ -196,11 +198,17 @@ public class VanillaInventoryCodeHooks
         return stack;
     }
 
-    private static Optional<Pair<IItemHandler, Object>> getItemHandler(Level level, Hopper hopper, Direction hopperFacing)
+    private static Optional<Pair<IItemHandler, Object>> getItemHandler(Level level, Hopper hopper, Direction hopperFacing, @Nullable ItemHandlerCache cache)
     {
         double x = hopper.getLevelX() + (double) hopperFacing.getStepX();
         double y = hopper.getLevelY() + (double) hopperFacing.getStepY();
         double z = hopper.getLevelZ() + (double) hopperFacing.getStepZ();
+        // Magma start - reuse the neighbour capability until its block entity is removed or the capability invalidated
+        if (cache != null && MagmaConfig.instance.hopperCacheTargets.getValues())
+        {
+            return cache.getItemHandler(level, BlockPos.containing(x, y, z), hopperFacing.getOpposite());
+        }
+        // Magma end
         return getItemHandler(level, x, y, z, hopperFacing.getOpposite());
     }
 
@@ -250,4 +258,54 @@ public class VanillaInventoryCodeHooks
 
         return Optional.empty();
     }
+
+    // Magma start
+    /**
+     * The item handler a hopper last resolved on one side. It stays valid while its block entity is not removed and
+     * its capability is not invalidated, so the block entity and capability lookups are skipped. Positions without an
+     * item handler are looked up again every time.
+     */
+    public static final class ItemHandlerCache
+    {
+        @Nullable
+        private BlockEntity blockEntity;
+        @Nullable
+        private LazyOptional<IItemHandler> capability;
+        @Nullable
+        private Direction side;
+
+        Optional<Pair<IItemHandler, Object>> getItemHandler(Level level, BlockPos pos, Direction side)
+        {
+            if (this.capability != null && this.side == side && !this.blockEntity.isRemoved() && this.blockEntity.getBlockPos().equals(pos))
+            {
+                IItemHandler handler = this.capability.orElse(null);
+                if (handler != null)
+                {
+                    return Optional.of(ImmutablePair.of(handler, this.blockEntity));
+                }
+            }
+
+            this.blockEntity = null;
+            this.capability = null;
+            this.side = null;
+            if (level.getBlockState(pos).hasBlockEntity())
+            {
+                BlockEntity blockEntity = level.getBlockEntity(pos);
+                if (blockEntity != null)
+                {
+                    LazyOptional<IItemHandler> capability = blockEntity.getCapability(ForgeCapabilities.ITEM_HANDLER, side);
+                    IItemHandler handler = capability.orElse(null);
+                    if (handler != null)
+                    {
+                        this.blockEntity = blockEntity;
+                        this.capability = capability;
+                        this.side = side;
+                        return Optional.of(ImmutablePair.of(handler, blockEntity));
+                    }
+                }
+            }
+            return Optional.empty();
+        }
+    }
+    // Magma end
 }
@@ -12,6 +12,8 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,20 +23,40 @@ import java.util.stream.Collectors;
 public class ConfigSync {
     public static final ConfigSync INSTANCE = new ConfigSync(ConfigTracker.INSTANCE);
     private final ConfigTracker tracker;
+    private volatile CachedConfigData cachedConfigData;
 
     private ConfigSync(final ConfigTracker tracker) {
         this.tracker = tracker;
     }
 
     public List<Pair<String, HandshakeMessages.S2CConfigData>> syncConfigs(boolean isLocal) {
-        final Map<String, byte[]> configData = tracker.configSets().get(ModConfig.Type.SERVER).stream().collect(Collectors.toMap(ModConfig::getFileName, mc -> {
-            try {
-                return Files.readAllBytes(mc.getFullPath());
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        return getServerConfigData().entrySet().stream().map(e->Pair.of("Config "+e.getKey(), new HandshakeMessages.S2CConfigData(e.getKey(), e.getValue()))).collect(Collectors.toList());
+    }
+
+    /**
+     * The server config files only change on load, save or reload, so their contents are read once
+     * and shared between logins until the {@link ConfigTracker#getGeneration() tracker generation} moves.
+     */
+    private Map<String, byte[]> getServerConfigData() {
+        CachedConfigData cached = this.cachedConfigData;
+        final int generation = tracker.getGeneration();
+        if (cached == null || cached.generation() != generation) {
+            synchronized (this) {
+                cached = this.cachedConfigData;
+                if (cached == null || cached.generation() != generation) {
+                    final Map<String, byte[]> configData = tracker.configSets().get(ModConfig.Type.SERVER).stream().collect(Collectors.toMap(ModConfig::getFileName, mc -> {
+                        try {
+                            return Files.readAllBytes(mc.getFullPath());
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }, (a, b) -> a, LinkedHashMap::new));
+                    cached = new CachedConfigData(generation, Collections.unmodifiableMap(configData));
+                    this.cachedConfigData = cached;
+                }
             }
-        }));
-        return configData.entrySet().stream().map(e->Pair.of("Config "+e.getKey(), new HandshakeMessages.S2CConfigData(e.getKey(), e.getValue()))).collect(Collectors.toList());
+        }
+        return cached.data();
     }
 
     public void receiveSyncedConfig(final HandshakeMessages.S2CConfigData s2CConfigData, final Supplier<NetworkEvent.Context> contextSupplier) {
@@ -42,4 +64,6 @@ public class ConfigSync {
             Optional.ofNullable(tracker.fileMap().get(s2CConfigData.getFileName())).ifPresent(mc-> mc.acceptSyncedConfig(s2CConfigData.getBytes()));
         }
     }
+
+    private record CachedConfigData(int generation, Map<String, byte[]> data) {}
 }
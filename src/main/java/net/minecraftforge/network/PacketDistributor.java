@@ -7,6 +7,7 @@ package net.minecraftforge.network;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.network.Connection;
 import net.minecraft.network.protocol.Packet;
@@ -203,7 +204,16 @@ public class PacketDistributor<T> {
         return p -> entityPlayerMPSupplier.get().connection.connection.send(p);
     }
     private Consumer<Packet<?>> playerListDimConsumer(final Supplier<ResourceKey<Level>> dimensionTypeSupplier) {
-        return p->getServer().getPlayerList().broadcastAll(p, dimensionTypeSupplier.get());
+        return p -> {
+            // Magma - only visit the players of the target level instead of every online player
+            final ServerLevel level = getServer().getLevel(dimensionTypeSupplier.get());
+            if (level != null) {
+                final List<ServerPlayer> players = level.players();
+                for (int i = 0; i < players.size(); i++) {
+                    players.get(i).connection.send(p);
+                }
+            }
+        };
     }
 
     private Consumer<Packet<?>> playerListAll(final Supplier<Void> voidSupplier) {
@@ -217,7 +227,24 @@ public class PacketDistributor<T> {
     private Consumer<Packet<?>> playerListPointConsumer(final Supplier<TargetPoint> targetPointSupplier) {
         return p -> {
             final TargetPoint tp = targetPointSupplier.get();
-            getServer().getPlayerList().broadcast(tp.excluded, tp.x, tp.y, tp.z, tp.r2, tp.dim, p);
+            // Magma - only visit the players of the target level instead of every online player
+            final ServerLevel level = getServer().getLevel(tp.dim);
+            if (level == null) {
+                return;
+            }
+            final List<ServerPlayer> players = level.players();
+            for (int i = 0; i < players.size(); i++) {
+                final ServerPlayer player = players.get(i);
+                if (player == tp.excluded) {
+                    continue;
+                }
+                final double dx = tp.x - player.getX();
+                final double dy = tp.y - player.getY();
+                final double dz = tp.z - player.getZ();
+                if (dx * dx + dy * dy + dz * dz < tp.r2) {
+                    player.connection.send(p);
+                }
+            }
         };
     }
 
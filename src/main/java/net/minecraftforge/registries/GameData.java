@@ -587,6 +587,8 @@ public class GameData
             if (freeze)
                 toRegistry.isFrozen = true;
         }
+        if (to == RegistryManager.ACTIVE)
+            RegistryManager.invalidateSyncSnapshots();
     }
 
 
@@ -735,6 +737,7 @@ public class GameData
     }
 
     private static void fireRemapEvent(final Map<ResourceLocation, Map<ResourceLocation, IdMappingEvent.IdRemapping>> remaps, final boolean isFreezing) {
+        RegistryManager.invalidateSyncSnapshots();
         MinecraftForge.EVENT_BUS.post(new IdMappingEvent(remaps, isFreezing));
     }
 
@@ -37,6 +37,7 @@ public class RegistryManager
     public static final RegistryManager VANILLA = new RegistryManager("VANILLA");
     public static final RegistryManager FROZEN = new RegistryManager("FROZEN");
     private static Set<ResourceLocation> vanillaRegistryKeys = Set.of();
+    private static volatile Map<ResourceLocation, Snapshot> syncSnapshots;
 
     BiMap<ResourceLocation, ForgeRegistry<?>> registries = HashBiMap.create();
     private Set<ResourceLocation> persisted = Sets.newHashSet();
@@ -196,11 +197,41 @@ public class RegistryManager
 
     public static List<Pair<String, HandshakeMessages.S2CRegistry>> generateRegistryPackets(boolean isLocal)
     {
-        return !isLocal ? ACTIVE.takeSnapshot(false).entrySet().stream().
+        return !isLocal ? getSyncSnapshots().entrySet().stream().
                 map(e->Pair.of("Registry " + e.getKey(), new HandshakeMessages.S2CRegistry(e.getKey(), e.getValue()))).
                 collect(Collectors.toList()) : Collections.emptyList();
     }
 
+    /**
+     * Snapshots of the synced ACTIVE registries, shared by every login so the snapshot and its
+     * cached packet data are only built once per id mapping instead of once per connection.
+     */
+    private static Map<ResourceLocation, Snapshot> getSyncSnapshots()
+    {
+        Map<ResourceLocation, Snapshot> snapshots = syncSnapshots;
+        if (snapshots == null)
+        {
+            synchronized (RegistryManager.class)
+            {
+                snapshots = syncSnapshots;
+                if (snapshots == null)
+                {
+                    snapshots = Collections.unmodifiableMap(ACTIVE.takeSnapshot(false));
+                    syncSnapshots = snapshots;
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    static void invalidateSyncSnapshots()
+    {
+        synchronized (RegistryManager.class)
+        {
+            syncSnapshots = null;
+        }
+    }
+
     public static List<ResourceLocation> getRegistryNamesForSyncToClient()
     {
         return ACTIVE.registries.keySet().stream().
@@ -89,6 +89,31 @@ public class TimeTracker<T>
         this.enabled = true;
     }
 
+    /**
+     * Returns whether the tracker is currently recording
+     *
+     * @return true if tracking is enabled
+     */
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Records a timing measured by the caller
+     *
+     * @param tracking The object that was timed
+     * @param startNanos The {@link System#nanoTime()} at which the update started
+     * @param endNanos The {@link System#nanoTime()} at which the update ended
+     */
+    public void track(T tracking, long startNanos, long endNanos)
+    {
+        if (!enabled)
+            return;
+        this.trackStart(tracking, startNanos);
+        this.trackEnd(tracking, endNanos);
+    }
+
     /**
      * Starts timing of the provided object
      *
@@ -35,10 +35,12 @@ import org.bukkit.craftbukkit.block.data.CraftBlockData;
 import org.bukkit.entity.Entity;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.plugin.Plugin;
+import org.magmafoundation.magma.api.ChunkAPI;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Objects;
+import java.util.List;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
@@ -119,9 +121,7 @@ public class CraftChunk implements Chunk {
         long pair = ChunkPos.asLong(x, z);
 
         if (entityManager.areEntitiesLoaded(pair)) {
-            return entityManager.getEntities(new ChunkPos(x, z)).stream()
-                    .map(net.minecraft.world.entity.Entity::getBukkitEntity)
-                    .filter(Objects::nonNull).toArray(Entity[]::new);
+            return collectEntities(); // Magma
         }
 
         entityManager.ensureChunkQueuedForLoad(pair); // Start entity loading
@@ -157,11 +157,17 @@ public class CraftChunk implements Chunk {
             }
         }
 
-        return entityManager.getEntities(new ChunkPos(x, z)).stream()
-                .map(net.minecraft.world.entity.Entity::getBukkitEntity)
-                .filter(Objects::nonNull).toArray(Entity[]::new);
+        return collectEntities(); // Magma
     }
 
+    // Magma start - read the entity sections directly instead of streaming the section storage
+    private Entity[] collectEntities() {
+        List<Entity> entities = new ArrayList<>();
+        ChunkAPI.forEachEntity(this, entities::add);
+        return entities.toArray(new Entity[0]);
+    }
+    // Magma end
+
     @Override
     public BlockState[] getTileEntities() {
         if (!isLoaded()) {
@@ -152,6 +152,8 @@ import org.bukkit.structure.StructureManager;
 import org.bukkit.util.StringUtil;
 import org.bukkit.util.permissions.DefaultPermissions;
 import org.magmafoundation.magma.Magma;
+import org.magmafoundation.magma.configuration.MagmaConfig;
+import org.magmafoundation.magma.plugin.PluginStartup;
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.SafeConstructor;
@@ -336,20 +338,22 @@ public final class CraftServer implements Server {
 
         if (pluginFolder.exists()) {
             Plugin[] plugins = pluginManager.loadPlugins(pluginFolder);
-            for (Plugin plugin : plugins) {
-                try {
-                    String message = String.format("Loading %s", plugin.getDescription().getFullName());
-                    plugin.getLogger().info(message);
-                    plugin.onLoad();
-                } catch (Throwable ex) {
-                    Logger.getLogger(CraftServer.class.getName()).log(Level.SEVERE, ex.getMessage() + " initializing " + plugin.getDescription().getFullName() + " (Is it up to date?)", ex);
-                }
-            }
+            PluginStartup.load(plugins, this::loadPlugin, MagmaConfig.instance.pluginsParallelLoad.getValues(), getLogger()); // Magma - timed and optionally parallel onLoad
         } else {
             pluginFolder.mkdir();
         }
     }
 
+    private void loadPlugin(Plugin plugin) {
+        try {
+            String message = String.format("Loading %s", plugin.getDescription().getFullName());
+            plugin.getLogger().info(message);
+            plugin.onLoad();
+        } catch (Throwable ex) {
+            Logger.getLogger(CraftServer.class.getName()).log(Level.SEVERE, ex.getMessage() + " initializing " + plugin.getDescription().getFullName() + " (Is it up to date?)", ex);
+        }
+    }
+
     public void enablePlugins(PluginLoadOrder type) {
         if (type == PluginLoadOrder.STARTUP) {
             helpMap.clear();
@@ -360,7 +364,7 @@ public final class CraftServer implements Server {
 
         for (Plugin plugin : plugins) {
             if ((!plugin.isEnabled()) && (plugin.getDescription().getLoad() == type)) {
-                enablePlugin(plugin);
+                PluginStartup.enable(plugin, this::enablePlugin); // Magma - per plugin enable timings
             }
         }
 
@@ -376,6 +380,7 @@ public final class CraftServer implements Server {
             loadCustomPermissions();
             helpMap.initializeCommands();
             syncCommands();
+            PluginStartup.report(getLogger(), MagmaConfig.instance.pluginsStartupReport.getValues()); // Magma
         }
     }
 
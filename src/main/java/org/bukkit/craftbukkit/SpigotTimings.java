@@ -47,6 +47,24 @@ public class SpigotTimings {
     public static final HashMap<String, CustomTimingsHandler> entityTypeTimingMap = new HashMap<String, CustomTimingsHandler>();
     public static final HashMap<String, CustomTimingsHandler> tileEntityTypeTimingMap = new HashMap<String, CustomTimingsHandler>();
     public static final HashMap<String, CustomTimingsHandler> pluginTaskTimingMap = new HashMap<String, CustomTimingsHandler>();
+    // Magma start - per class caches, entities and block entities are also created off the main thread
+    private static final ClassValue<CustomTimingsHandler> entityClassTimings = new ClassValue<CustomTimingsHandler>() {
+        @Override
+        protected CustomTimingsHandler computeValue(Class<?> type) {
+            synchronized (entityTypeTimingMap) {
+                return entityTypeTimingMap.computeIfAbsent(type.getName(), name -> new CustomTimingsHandler("** tickEntity - " + type.getSimpleName(), activatedEntityTimer));
+            }
+        }
+    };
+    private static final ClassValue<CustomTimingsHandler> tileEntityClassTimings = new ClassValue<CustomTimingsHandler>() {
+        @Override
+        protected CustomTimingsHandler computeValue(Class<?> type) {
+            synchronized (tileEntityTypeTimingMap) {
+                return tileEntityTypeTimingMap.computeIfAbsent(type.getName(), name -> new CustomTimingsHandler("** tickTileEntity - " + type.getSimpleName(), tickTileEntityTimer));
+            }
+        }
+    };
+    // Magma end
 
     /**
      * Gets a timer associated with a plugins tasks.
@@ -90,13 +108,7 @@ public class SpigotTimings {
      * @return
      */
     public static CustomTimingsHandler getEntityTimings(Entity entity) {
-        String entityType = entity.getClass().getName();
-        CustomTimingsHandler result = entityTypeTimingMap.get(entityType);
-        if (result == null) {
-            result = new CustomTimingsHandler("** tickEntity - " + entity.getClass().getSimpleName(), activatedEntityTimer);
-            entityTypeTimingMap.put(entityType, result);
-        }
-        return result;
+        return entityClassTimings.get(entity.getClass()); // Magma
     }
 
     /**
@@ -106,13 +118,7 @@ public class SpigotTimings {
      * @return
      */
     public static CustomTimingsHandler getTileEntityTimings(BlockEntity entity) {
-        String entityType = entity.getClass().getName();
-        CustomTimingsHandler result = tileEntityTypeTimingMap.get(entityType);
-        if (result == null) {
-            result = new CustomTimingsHandler("** tickTileEntity - " + entity.getClass().getSimpleName(), tickTileEntityTimer);
-            tileEntityTypeTimingMap.put(entityType, result);
-        }
-        return result;
+        return tileEntityClassTimings.get(entity.getClass()); // Magma
     }
 
     /**
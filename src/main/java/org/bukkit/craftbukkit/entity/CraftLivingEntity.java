@@ -586,7 +586,7 @@ public class CraftLivingEntity extends CraftEntity implements LivingEntity {
 
     @Override
     public AttributeInstance getAttribute(Attribute attribute) {
-        return getHandle().craftAttributes.getAttribute(attribute);
+        return getHandle().getCraftAttributes().getAttribute(attribute); // Magma
     }
 
     @Override
@@ -653,7 +653,7 @@ public class CraftLivingEntity extends CraftEntity implements LivingEntity {
 
     @Override
     public Set<UUID> getCollidableExemptions() {
-        return getHandle().collidableExemptions;
+        return getHandle().getCollidableExemptions(); // Magma
     }
 
     @Override
@@ -5,6 +5,7 @@ import net.minecraft.world.Container;
 import org.bukkit.inventory.CraftingInventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.Recipe;
+import org.magmafoundation.magma.craftbukkit.inventory.BukkitRecipeCache;
 
 import java.util.Arrays;
 import java.util.List;
@@ -116,6 +117,6 @@ public class CraftInventoryCrafting extends CraftInventory implements CraftingIn
     @Override
     public Recipe getRecipe() {
         net.minecraft.world.item.crafting.Recipe recipe = getInventory().getCurrentRecipe();
-        return recipe == null ? null : recipe.toBukkitRecipe();
+        return recipe == null ? null : BukkitRecipeCache.get(recipe); // Magma
     }
 }
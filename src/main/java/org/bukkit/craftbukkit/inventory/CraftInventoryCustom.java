@@ -10,6 +10,7 @@ import org.bukkit.craftbukkit.entity.CraftHumanEntity;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.InventoryHolder;
+import org.magmafoundation.magma.api.ChangeTrackedContainer;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -32,8 +33,28 @@ public class CraftInventoryCustom extends CraftInventory {
         super(new MinecraftInventory(owner, size, title));
     }
 
-    static class MinecraftInventory implements Container {
+    // Magma start - mirrors report their in place changes to the container
+    @Override
+    public org.bukkit.inventory.ItemStack getItem(int index) {
+        ItemStack item = getInventory().getItem(index);
+        return item.isEmpty() ? null : CraftItemStack.asCraftMirror(item, getInventory());
+    }
+
+    @Override
+    public org.bukkit.inventory.ItemStack[] getContents() {
+        List<ItemStack> mcItems = getInventory().getContents();
+        org.bukkit.inventory.ItemStack[] items = new org.bukkit.inventory.ItemStack[mcItems.size()];
+        for (int i = 0; i < items.length; i++) {
+            ItemStack mcItem = mcItems.get(i);
+            items[i] = mcItem.isEmpty() ? null : CraftItemStack.asCraftMirror(mcItem, getInventory());
+        }
+        return items;
+    }
+    // Magma end
+
+    static class MinecraftInventory implements Container, ChangeTrackedContainer { // Magma
         private final NonNullList<ItemStack> items;
+        private long modificationCount; // Magma
         private int maxStack = MAX_STACK;
         private final List<HumanEntity> viewers;
         private final String title;
@@ -101,12 +122,14 @@ public class CraftInventoryCustom extends CraftInventory {
                 result = CraftItemStack.copyNMSStack(stack, 1);
                 stack.shrink(1);
             }
+            this.modificationCount++; // Magma
             return result;
         }
 
         @Override
         public void setItem(int i, ItemStack itemstack) {
             items.set(i, itemstack);
+            this.modificationCount++; // Magma
             if (itemstack != ItemStack.EMPTY && this.getMaxStackSize() > 0 && itemstack.getCount() > this.getMaxStackSize()) {
                 itemstack.setCount(this.getMaxStackSize());
             }
@@ -123,7 +146,16 @@ public class CraftInventoryCustom extends CraftInventory {
         }
 
         @Override
-        public void setChanged() {}
+        public void setChanged() {
+            this.modificationCount++; // Magma
+        }
+
+        // Magma start
+        @Override
+        public long getModificationCount() {
+            return this.modificationCount;
+        }
+        // Magma end
 
         @Override
         public boolean stillValid(net.minecraft.world.entity.player.Player entityhuman) {
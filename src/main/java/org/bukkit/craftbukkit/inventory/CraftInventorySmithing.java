@@ -6,6 +6,7 @@ import org.bukkit.Location;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.Recipe;
 import org.bukkit.inventory.SmithingInventory;
+import org.magmafoundation.magma.craftbukkit.inventory.BukkitRecipeCache;
 
 public class CraftInventorySmithing extends CraftResultInventory implements SmithingInventory {
 
@@ -39,6 +40,6 @@ public class CraftInventorySmithing extends CraftResultInventory implements Smit
     @Override
     public Recipe getRecipe() {
         net.minecraft.world.item.crafting.Recipe recipe = getResultInventory().getRecipeUsed();
-        return (recipe == null) ? null : recipe.toBukkitRecipe();
+        return (recipe == null) ? null : BukkitRecipeCache.get(recipe); // Magma
     }
 }
@@ -70,7 +70,8 @@ public class CraftInventoryView extends InventoryView {
         if (slot < 0) {
             return null;
         }
-        return CraftItemStack.asCraftMirror(container.getSlot(slot).getItem());
+        net.minecraft.world.inventory.Slot handle = container.getSlot(slot); // Magma
+        return CraftItemStack.asCraftMirror(handle.getItem(), handle.container); // Magma - report in place changes to tracked containers
     }
 
     @Override
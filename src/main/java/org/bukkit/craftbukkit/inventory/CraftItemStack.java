@@ -17,6 +17,7 @@ import org.bukkit.enchantments.Enchantment;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.material.MaterialData;
+import org.magmafoundation.magma.api.ChangeTrackedContainer;
 
 import java.util.Map;
 
@@ -71,6 +72,22 @@ public final class CraftItemStack extends ItemStack {
         return new CraftItemStack((original == null || original.isEmpty()) ? null : original);
     }
 
+    // Magma start - in place changes of the mirror are reported to the change-tracked container holding the stack
+    public static CraftItemStack asCraftMirror(net.minecraft.world.item.ItemStack original, net.minecraft.world.Container container) {
+        CraftItemStack mirror = asCraftMirror(original);
+        if (container instanceof ChangeTrackedContainer) {
+            mirror.container = container;
+        }
+        return mirror;
+    }
+
+    private void notifyContainer() {
+        if (container != null) {
+            container.setChanged();
+        }
+    }
+    // Magma end
+
     public static CraftItemStack asCraftCopy(ItemStack original) {
         if (original instanceof CraftItemStack) {
             CraftItemStack stack = (CraftItemStack) original;
@@ -88,6 +105,7 @@ public final class CraftItemStack extends ItemStack {
     }
 
     net.minecraft.world.item.ItemStack handle;
+    private net.minecraft.world.Container container; // Magma
 
     /**
      * Mirror
@@ -119,6 +137,7 @@ public final class CraftItemStack extends ItemStack {
 
     @Override
     public void setType(Material type) {
+        notifyContainer(); // Magma
         if (getType() == type) {
             return;
         } else if (type == Material.AIR) {
@@ -144,6 +163,7 @@ public final class CraftItemStack extends ItemStack {
 
     @Override
     public void setAmount(int amount) {
+        notifyContainer(); // Magma
         if (handle == null) {
             return;
         }
@@ -156,6 +176,7 @@ public final class CraftItemStack extends ItemStack {
 
     @Override
     public void setDurability(final short durability) {
+        notifyContainer(); // Magma
         // Ignore damage if item is null
         if (handle != null) {
             handle.setDamageValue(durability);
@@ -178,6 +199,7 @@ public final class CraftItemStack extends ItemStack {
 
     @Override
     public void addUnsafeEnchantment(Enchantment ench, int level) {
+        notifyContainer(); // Magma
         Validate.notNull(ench, "Cannot add null enchantment");
 
         if (!makeTag(handle)) {
@@ -232,6 +254,7 @@ public final class CraftItemStack extends ItemStack {
 
     @Override
     public int removeEnchantment(Enchantment ench) {
+        notifyContainer(); // Magma
         Validate.notNull(ench, "Cannot remove null enchantment");
 
         ListTag list = getEnchantmentList(handle), listCopy;
@@ -312,6 +335,7 @@ public final class CraftItemStack extends ItemStack {
         if (this.handle != null) {
             itemStack.handle = this.handle.copy();
         }
+        itemStack.container = null; // Magma - the copy is not held by the container
         return itemStack;
     }
 
@@ -632,6 +656,7 @@ public final class CraftItemStack extends ItemStack {
 
     @Override
     public boolean setItemMeta(ItemMeta itemMeta) {
+        notifyContainer(); // Magma
         return setItemMeta(handle, itemMeta);
     }
 
@@ -82,6 +82,22 @@ public class CraftMapCanvas implements MapCanvas {
         return base[y * 128 + x];
     }
 
+    // Magma start - bulk copy that only touches and marks the pixels that changed
+    protected void setPixels(byte[] colors) {
+        int offset = 0;
+        while (offset < buffer.length) {
+            int mismatch = Arrays.mismatch(buffer, offset, buffer.length, colors, offset, buffer.length);
+            if (mismatch < 0) {
+                break;
+            }
+            int index = offset + mismatch;
+            buffer[index] = colors[index];
+            mapView.worldMap.setColorsDirty(index & 127, index >> 7);
+            offset = index + 1;
+        }
+    }
+    // Magma end
+
     protected void setBase(byte[] base) {
         this.base = base;
     }
@@ -12,6 +12,7 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 import java.util.logging.Logger;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.InflaterInputStream;
@@ -24,7 +25,7 @@ public class CraftMapColorCache implements MapPalette.MapColorCache {
     private static final File CACHE_FILE = new File("map-color-cache.dat");
     private byte[] cache;
     private final Logger logger;
-    private boolean cached = false;
+    private volatile boolean cached = false;
     private final AtomicBoolean running = new AtomicBoolean(false);
 
     public CraftMapColorCache(Logger logger) {
@@ -34,6 +35,7 @@ public class CraftMapColorCache implements MapPalette.MapColorCache {
     // Builds and prints the md5 hash of the cache, this should be run when new map colors are added to update the MD5_CACHE_HASH string
     public static void main(String[] args) {
         CraftMapColorCache craftMapColorCache = new CraftMapColorCache(Logger.getGlobal());
+        craftMapColorCache.cache = new byte[256 * 256 * 256];
         craftMapColorCache.buildCache();
         try {
             byte[] hash = MessageDigest.getInstance("MD5").digest(craftMapColorCache.cache);
@@ -61,6 +63,11 @@ public class CraftMapColorCache implements MapPalette.MapColorCache {
         Preconditions.checkState(!cached && !running.getAndSet(true), "Cache is already build or is currently being build");
 
         cache = new byte[256 * 256 * 256]; // Red, Green and Blue have each a range from 0 to 255 each mean we need space for 256 * 256 * 256 values
+        // Magma - read and verify the cache file in the background as well, matching falls back to the palette scan until it is done
+        return CompletableFuture.runAsync(this::loadOrBuildCache, Util.backgroundExecutor());
+    }
+
+    private void loadOrBuildCache() {
         if (CACHE_FILE.exists()) {
             byte[] fileContent;
 
@@ -69,7 +76,7 @@ public class CraftMapColorCache implements MapPalette.MapColorCache {
             } catch (IOException e) {
                 logger.warning("Error while reading map color cache");
                 e.printStackTrace();
-                return CompletableFuture.completedFuture(null);
+                return;
             }
 
             byte[] hash;
@@ -78,12 +85,13 @@ public class CraftMapColorCache implements MapPalette.MapColorCache {
             } catch (NoSuchAlgorithmException e) {
                 logger.warning("Error while hashing map color cache");
                 e.printStackTrace();
-                return CompletableFuture.completedFuture(null);
+                return;
             }
 
             if (!MD5_CACHE_HASH.equals(bytesToString(hash))) {
                 logger.info("Map color cache hash invalid, rebuilding cache in the background");
-                return buildAndSaveCache();
+                buildAndSaveCache();
+                return;
             } else {
                 System.arraycopy(fileContent, 0, cache, 0, fileContent.length);
             }
@@ -91,53 +99,49 @@ public class CraftMapColorCache implements MapPalette.MapColorCache {
             cached = true;
         } else {
             logger.info("Map color cache not found, building it in the background");
-            return buildAndSaveCache();
+            buildAndSaveCache();
         }
-
-        return CompletableFuture.completedFuture(null);
     }
 
     private void buildCache() {
-        for (int r = 0; r < 256; r++) {
+        // Magma - every red plane is independent, build them in parallel
+        IntStream.range(0, 256).parallel().forEach(r -> {
             for (int g = 0; g < 256; g++) {
                 for (int b = 0; b < 256; b++) {
-                    Color color = new Color(r, g, b);
-                    cache[toInt(color)] = MapPalette.matchColor(color);
+                    cache[r << 16 | g << 8 | b] = MapPalette.matchColor(r, g, b);
                 }
             }
-        }
+        });
     }
 
-    private CompletableFuture<Void> buildAndSaveCache() {
-        return CompletableFuture.runAsync(() -> {
-            buildCache();
-
-            if (!CACHE_FILE.exists()) {
-                try {
-                    if (!CACHE_FILE.createNewFile()) {
-                        cached = true;
-                        return;
-                    }
-                } catch (IOException e) {
-                    logger.warning("Error while building map color cache");
-                    e.printStackTrace();
+    private void buildAndSaveCache() {
+        buildCache();
+
+        if (!CACHE_FILE.exists()) {
+            try {
+                if (!CACHE_FILE.createNewFile()) {
                     cached = true;
                     return;
                 }
-            }
-
-            try (OutputStream outputStream = new DeflaterOutputStream(new FileOutputStream(CACHE_FILE))) {
-                outputStream.write(cache);
             } catch (IOException e) {
                 logger.warning("Error while building map color cache");
                 e.printStackTrace();
                 cached = true;
                 return;
             }
+        }
 
+        try (OutputStream outputStream = new DeflaterOutputStream(new FileOutputStream(CACHE_FILE))) {
+            outputStream.write(cache);
+        } catch (IOException e) {
+            logger.warning("Error while building map color cache");
+            e.printStackTrace();
             cached = true;
-            logger.info("Map color cache build successfully");
-        }, Util.backgroundExecutor());
+            return;
+        }
+
+        cached = true;
+        logger.info("Map color cache build successfully");
     }
 
     private int toInt(Color color) {
@@ -146,7 +150,13 @@ public class CraftMapColorCache implements MapPalette.MapColorCache {
 
     @Override
     public boolean isCached() {
-        return cached || (!running.get() && initCache().isDone());
+        if (cached) {
+            return true;
+        }
+        if (!running.get()) {
+            initCache();
+        }
+        return false;
     }
 
     @Override
@@ -155,4 +165,11 @@ public class CraftMapColorCache implements MapPalette.MapColorCache {
 
         return cache[toInt(color)];
     }
+
+    @Override
+    public byte matchColor(int rgb) {
+        Preconditions.checkState(isCached(), "Cache not build jet");
+
+        return cache[rgb & 0xFFFFFF];
+    }
 }
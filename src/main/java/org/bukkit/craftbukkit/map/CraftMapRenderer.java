@@ -22,11 +22,7 @@ public class CraftMapRenderer extends MapRenderer {
     @Override
     public void render(MapView map, MapCanvas canvas, Player player) {
         // Map
-        for (int x = 0; x < 128; ++x) {
-            for (int y = 0; y < 128; ++y) {
-                canvas.setPixel(x, y, worldMap.colors[y * 128 + x]);
-            }
-        }
+        ((CraftMapCanvas) canvas).setPixels(worldMap.colors); // Magma - only copy the changed pixels
 
         // Cursors
         MapCursorCollection cursors = canvas.getCursors();
@@ -21,6 +21,7 @@ public final class CraftMapView implements MapView {
     private final List<MapRenderer> renderers = new ArrayList<MapRenderer>();
     private final Map<MapRenderer, Map<CraftPlayer, CraftMapCanvas>> canvases = new HashMap<MapRenderer, Map<CraftPlayer, CraftMapCanvas>>();
     protected final MapItemSavedData worldMap;
+    private int sharedRenderTick = -1; // Magma
 
     public CraftMapView(MapItemSavedData worldMap) {
         this.worldMap = worldMap;
@@ -104,6 +105,7 @@ public final class CraftMapView implements MapView {
         if (!renderers.contains(renderer)) {
             renderers.add(renderer);
             canvases.put(renderer, new HashMap<CraftPlayer, CraftMapCanvas>());
+            sharedRenderTick = -1; // Magma
             renderer.initialize(this);
         }
     }
@@ -120,6 +122,7 @@ public final class CraftMapView implements MapView {
                 }
             }
             canvases.remove(renderer);
+            sharedRenderTick = -1; // Magma
             return true;
         } else {
             return false;
@@ -133,6 +136,15 @@ public final class CraftMapView implements MapView {
         return false;
     }
 
+    // Magma start - non contextual maps render the same for every viewer, unless vanilla decorations need a visibility check
+    private boolean isShareable() {
+        for (MapRenderer renderer : renderers) {
+            if (renderer instanceof CraftMapRenderer && !worldMap.decorations.isEmpty()) return false;
+        }
+        return true;
+    }
+    // Magma end
+
     public RenderData render(CraftPlayer player) {
         boolean context = isContextual();
         RenderData render = renderCache.get(context ? player : null);
@@ -146,6 +158,14 @@ public final class CraftMapView implements MapView {
             renderCache.remove(null);
         }
 
+        // Magma start - render shared maps once per tick and hand the same frame to every viewer
+        boolean shared = !context && isShareable();
+        if (shared && sharedRenderTick == MinecraftServer.currentTick) {
+            return render;
+        }
+        sharedRenderTick = shared ? MinecraftServer.currentTick : -1;
+        // Magma end
+
         Arrays.fill(render.buffer, (byte) 0);
         render.cursors.clear();
 
@@ -44,7 +44,12 @@ final class CraftObjective extends CraftScoreboardComponent implements Objective
         Preconditions.checkArgument(displayName != null, "Display name cannot be null");
         checkState();
 
-        objective.setDisplayName(CraftChatMessage.fromString(displayName)[0]); // SPIGOT-4112: not nullable
+        // Magma start - skip unchanged values, every change is sent to the viewers of the board
+        net.minecraft.network.chat.Component component = CraftChatMessage.fromString(displayName)[0]; // SPIGOT-4112: not nullable
+        if (!component.equals(objective.getDisplayName())) {
+            objective.setDisplayName(component);
+        }
+        // Magma end
     }
 
     @Override
@@ -74,6 +79,20 @@ final class CraftObjective extends CraftScoreboardComponent implements Objective
         Scoreboard board = scoreboard.board;
         net.minecraft.world.scores.Objective objective = this.objective;
 
+        // Magma start - already shown in exactly this slot, clearing and setting it again would resend every score
+        int target = slot != null ? CraftScoreboardTranslations.fromBukkitSlot(slot) : -1;
+        boolean unchanged = true;
+        for (int i = 0; i < CraftScoreboardTranslations.MAX_DISPLAY_SLOT; i++) {
+            if ((board.getDisplayObjective(i) == objective) != (i == target)) {
+                unchanged = false;
+                break;
+            }
+        }
+        if (unchanged) {
+            return;
+        }
+        // Magma end
+
         for (int i = 0; i < CraftScoreboardTranslations.MAX_DISPLAY_SLOT; i++) {
             if (board.getDisplayObjective(i) == objective) {
                 board.setDisplayObjective(i, null);
@@ -104,7 +123,9 @@ final class CraftObjective extends CraftScoreboardComponent implements Objective
         Preconditions.checkArgument(renderType != null, "RenderType cannot be null");
         checkState();
 
-        this.objective.setRenderType(CraftScoreboardTranslations.fromBukkitRender(renderType));
+        if (this.objective.getRenderType() != CraftScoreboardTranslations.fromBukkitRender(renderType)) { // Magma - skip unchanged values
+            this.objective.setRenderType(CraftScoreboardTranslations.fromBukkitRender(renderType));
+        }
     }
 
     @Override
@@ -136,6 +157,7 @@ final class CraftObjective extends CraftScoreboardComponent implements Objective
         CraftScoreboard scoreboard = checkState();
 
         scoreboard.board.removeObjective(objective);
+        scoreboard.manager.onObjectiveRemoved(scoreboard, objective.getCriteria()); // Magma
     }
 
     @Override
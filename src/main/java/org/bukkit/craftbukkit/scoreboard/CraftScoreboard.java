@@ -20,9 +20,11 @@ import org.bukkit.scoreboard.Team;
 
 public final class CraftScoreboard implements org.bukkit.scoreboard.Scoreboard {
     final Scoreboard board;
+    final CraftScoreboardManager manager; // Magma
 
-    CraftScoreboard(Scoreboard board) {
+    CraftScoreboard(Scoreboard board, CraftScoreboardManager manager) {
         this.board = board;
+        this.manager = manager; // Magma
     }
 
     @Override
@@ -55,6 +57,7 @@ public final class CraftScoreboard implements org.bukkit.scoreboard.Scoreboard {
         Preconditions.checkArgument(board.getObjective(name) == null, "An objective of name '%s' already exists", name);
 
         net.minecraft.world.scores.Objective objective = board.addObjective(name, ((CraftCriteria) criteria).criteria, CraftChatMessage.fromStringOrNull(displayName), CraftScoreboardTranslations.fromBukkitRender(renderType));
+        manager.onObjectiveAdded(this, objective.getCriteria()); // Magma
         return new CraftObjective(this, objective);
     }
 
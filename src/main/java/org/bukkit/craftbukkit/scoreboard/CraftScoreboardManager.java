@@ -1,12 +1,14 @@
 package org.bukkit.craftbukkit.scoreboard;
 
 import com.google.common.base.Preconditions;
+import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.game.ClientboundSetObjectivePacket;
 import net.minecraft.network.protocol.game.ClientboundSetPlayerTeamPacket;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.ServerScoreboard;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.scores.PlayerTeam;
+import net.minecraft.world.scores.Score;
 import net.minecraft.world.scores.Scoreboard;
 import net.minecraft.world.scores.criteria.ObjectiveCriteria;
 import org.apache.commons.lang3.Validate;
@@ -23,9 +25,12 @@ public final class CraftScoreboardManager implements ScoreboardManager {
     private final MinecraftServer server;
     private final Collection<CraftScoreboard> scoreboards = new WeakCollection<>();
     private final Map<CraftPlayer, CraftScoreboard> playerBoards = new HashMap<>();
+    // Magma - plugin boards by the criteria of their objectives, the main board is always scanned
+    private final Map<ObjectiveCriteria, Set<CraftScoreboard>> boardsByCriteria = new HashMap<>();
+    private final Map<Scoreboard, Set<CraftPlayer>> viewers = new IdentityHashMap<>(); // Magma - players of each plugin board
 
     public CraftScoreboardManager(MinecraftServer minecraftserver, net.minecraft.world.scores.Scoreboard scoreboardServer) {
-        mainScoreboard = new CraftScoreboard(scoreboardServer);
+        mainScoreboard = new CraftScoreboard(scoreboardServer, this);
         server = minecraftserver;
         scoreboards.add(mainScoreboard);
     }
@@ -38,7 +43,7 @@ public final class CraftScoreboardManager implements ScoreboardManager {
     @Override
     public CraftScoreboard getNewScoreboard() {
         org.spigotmc.AsyncCatcher.catchOp("scoreboard creation"); // Spigot
-        CraftScoreboard scoreboard = new CraftScoreboard(new ServerScoreboard(server));
+        CraftScoreboard scoreboard = new CraftScoreboard(new ServerScoreboard(server), this);
         scoreboards.add(scoreboard);
         return scoreboard;
     }
@@ -67,38 +72,190 @@ public final class CraftScoreboardManager implements ScoreboardManager {
         } else {
             playerBoards.put(player, scoreboard);
         }
+        // Magma start - keep the viewers of each plugin board
+        removeViewer(oldboard, player);
+        if (scoreboard != mainScoreboard) {
+            viewers.computeIfAbsent(newboard, key -> new HashSet<>()).add(player);
+        }
 
+        // Objectives and teams identical on both boards are already known to the client and are not resent
+        Set<String> keptObjectives = new HashSet<>();
+        // Magma end
         // Old objective tracking
         HashSet<net.minecraft.world.scores.Objective> removed = new HashSet<>();
-        for (int i = 0; i < 3; ++i) {
+        for (int i = 0; i < CraftScoreboardTranslations.MAX_DISPLAY_SLOT; ++i) { // Magma - all display slots
             net.minecraft.world.scores.Objective scoreboardobjective = oldboard.getDisplayObjective(i);
             if (scoreboardobjective != null && !removed.contains(scoreboardobjective)) {
-                entityplayer.connection.send(new ClientboundSetObjectivePacket(scoreboardobjective, 1));
+                // Magma start
+                net.minecraft.world.scores.Objective current = newboard.getObjective(scoreboardobjective.getName());
+                if (current != null && isSameObjective(oldboard, scoreboardobjective, newboard, current)) {
+                    keptObjectives.add(scoreboardobjective.getName());
+                } else {
+                    entityplayer.connection.send(new ClientboundSetObjectivePacket(scoreboardobjective, 1));
+                }
+                // Magma end
                 removed.add(scoreboardobjective);
             }
         }
 
         // Old team tracking
+        Set<String> keptTeams = new HashSet<>(); // Magma
         Iterator<?> iterator = oldboard.getPlayerTeams().iterator();
         while (iterator.hasNext()) {
             PlayerTeam scoreboardteam = (PlayerTeam) iterator.next();
+            // Magma start
+            PlayerTeam current = newboard.getPlayerTeam(scoreboardteam.getName());
+            if (current != null && isSameTeam(scoreboardteam, current)) {
+                keptTeams.add(scoreboardteam.getName());
+                continue;
+            }
+            // Magma end
             entityplayer.connection.send(ClientboundSetPlayerTeamPacket.createRemovePacket(scoreboardteam));
         }
 
         // The above is the reverse of the below method.
-        server.getPlayerList().updateEntireScoreboard((ServerScoreboard) newboard, player.getHandle());
+        // Magma start - PlayerList.updateEntireScoreboard, skipping what the client already has
+        for (PlayerTeam scoreboardteam : newboard.getPlayerTeams()) {
+            if (!keptTeams.contains(scoreboardteam.getName())) {
+                entityplayer.connection.send(ClientboundSetPlayerTeamPacket.createAddOrModifyPacket(scoreboardteam, true));
+            }
+        }
+
+        HashSet<net.minecraft.world.scores.Objective> added = new HashSet<>();
+        for (int i = 0; i < CraftScoreboardTranslations.MAX_DISPLAY_SLOT; ++i) {
+            net.minecraft.world.scores.Objective scoreboardobjective = newboard.getDisplayObjective(i);
+            if (scoreboardobjective != null && !keptObjectives.contains(scoreboardobjective.getName()) && added.add(scoreboardobjective)) {
+                for (Packet<?> packet : ((ServerScoreboard) newboard).getStartTrackingPackets(scoreboardobjective)) {
+                    entityplayer.connection.send(packet);
+                }
+            }
+        }
+        // Magma end
+    }
+
+    // Magma start
+    private static boolean isSameObjective(Scoreboard oldboard, net.minecraft.world.scores.Objective objective, Scoreboard newboard, net.minecraft.world.scores.Objective other) {
+        if (objective.getRenderType() != other.getRenderType() || !objective.getDisplayName().equals(other.getDisplayName())) {
+            return false;
+        }
+        for (int i = 0; i < CraftScoreboardTranslations.MAX_DISPLAY_SLOT; ++i) {
+            if ((oldboard.getDisplayObjective(i) == objective) != (newboard.getDisplayObjective(i) == other)) {
+                return false;
+            }
+        }
+
+        Collection<Score> scores = oldboard.getPlayerScores(objective);
+        Collection<Score> otherScores = newboard.getPlayerScores(other);
+        if (scores.size() != otherScores.size()) {
+            return false;
+        }
+        Map<String, Integer> values = new HashMap<>();
+        for (Score score : scores) {
+            values.put(score.getOwner(), score.getScore());
+        }
+        for (Score score : otherScores) {
+            Integer value = values.get(score.getOwner());
+            if (value == null || value != score.getScore()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSameTeam(PlayerTeam team, PlayerTeam other) {
+        return team.packOptions() == other.packOptions()
+                && team.getColor() == other.getColor()
+                && team.getNameTagVisibility() == other.getNameTagVisibility()
+                && team.getCollisionRule() == other.getCollisionRule()
+                && team.getDisplayName().equals(other.getDisplayName())
+                && team.getPlayerPrefix().equals(other.getPlayerPrefix())
+                && team.getPlayerSuffix().equals(other.getPlayerSuffix())
+                && team.getPlayers().equals(other.getPlayers());
+    }
+
+    private void removeViewer(Scoreboard board, CraftPlayer player) {
+        Set<CraftPlayer> players = viewers.get(board);
+        if (players != null && players.remove(player) && players.isEmpty()) {
+            viewers.remove(board);
+        }
     }
 
+    /**
+     * Runs the action for every online player viewing the board.
+     */
+    public void forEachViewer(Scoreboard board, Consumer<ServerPlayer> action) {
+        if (board == mainScoreboard.board) {
+            for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+                if (playerBoards.isEmpty() || !playerBoards.containsKey(player.getBukkitEntity())) {
+                    action.accept(player);
+                }
+            }
+            return;
+        }
+        Set<CraftPlayer> players = viewers.get(board);
+        if (players != null) {
+            for (CraftPlayer player : players) {
+                action.accept(player.getHandle());
+            }
+        }
+    }
+    // Magma end
+
     // CraftBukkit method
     public void removePlayer(Player player) {
-        playerBoards.remove(player);
+        // Magma start
+        CraftScoreboard board = playerBoards.remove(player);
+        if (board != null) {
+            removeViewer(board.board, (CraftPlayer) player);
+        }
+        // Magma end
     }
 
     // CraftBukkit method
     public void getScoreboardScores(ObjectiveCriteria criteria, String name, Consumer<net.minecraft.world.scores.Score> consumer) {
-        for (CraftScoreboard scoreboard : scoreboards) {
+        // Magma start - only visit the boards with an objective of this criteria
+        mainScoreboard.board.forAllObjectives(criteria, name, consumer);
+        CraftScoreboard[] boards;
+        synchronized (boardsByCriteria) {
+            Set<CraftScoreboard> indexed = boardsByCriteria.get(criteria);
+            if (indexed == null) {
+                return;
+            }
+            boards = indexed.toArray(new CraftScoreboard[0]);
+        }
+        for (CraftScoreboard scoreboard : boards) {
             Scoreboard board = scoreboard.board;
-            board.forAllObjectives(criteria, name, (score) -> consumer.accept(score));
+            board.forAllObjectives(criteria, name, consumer);
+        }
+        // Magma end
+    }
+
+    // Magma start - criteria index, the main board also receives objectives from commands and saved data so it is not indexed
+    // Plugins register and unregister objectives from async tasks, so the index is only touched while holding its lock
+    void onObjectiveAdded(CraftScoreboard scoreboard, ObjectiveCriteria criteria) {
+        if (scoreboard == mainScoreboard) {
+            return;
+        }
+        synchronized (boardsByCriteria) {
+            boardsByCriteria.computeIfAbsent(criteria, key -> Collections.newSetFromMap(new WeakHashMap<>())).add(scoreboard);
+        }
+    }
+
+    void onObjectiveRemoved(CraftScoreboard scoreboard, ObjectiveCriteria criteria) {
+        if (scoreboard == mainScoreboard) {
+            return;
+        }
+        for (net.minecraft.world.scores.Objective objective : scoreboard.board.getObjectives()) {
+            if (objective.getCriteria() == criteria) {
+                return;
+            }
+        }
+        synchronized (boardsByCriteria) {
+            Set<CraftScoreboard> boards = boardsByCriteria.get(criteria);
+            if (boards != null && boards.remove(scoreboard) && boards.isEmpty()) {
+                boardsByCriteria.remove(criteria);
+            }
         }
     }
+    // Magma end
 }
@@ -40,7 +40,12 @@ final class CraftTeam extends CraftScoreboardComponent implements Team {
         Preconditions.checkArgument(displayName != null, "Display name cannot be null");
         checkState();
 
-        team.setDisplayName(CraftChatMessage.fromString(displayName)[0]); // SPIGOT-4112: not nullable
+        // Magma start - skip unchanged values, every change is sent to the viewers of the board
+        net.minecraft.network.chat.Component component = CraftChatMessage.fromString(displayName)[0]; // SPIGOT-4112: not nullable
+        if (!component.equals(team.getDisplayName())) {
+            team.setDisplayName(component);
+        }
+        // Magma end
     }
 
     @Override
@@ -55,7 +60,12 @@ final class CraftTeam extends CraftScoreboardComponent implements Team {
         Preconditions.checkArgument(prefix != null, "Prefix cannot be null");
         checkState();
 
-        team.setPlayerPrefix(CraftChatMessage.fromStringOrNull(prefix));
+        // Magma start
+        net.minecraft.network.chat.Component component = CraftChatMessage.fromStringOrNull(prefix);
+        if (!java.util.Objects.equals(component, team.getPlayerPrefix())) {
+            team.setPlayerPrefix(component);
+        }
+        // Magma end
     }
 
     @Override
@@ -70,7 +80,12 @@ final class CraftTeam extends CraftScoreboardComponent implements Team {
         Preconditions.checkArgument(suffix != null, "Suffix cannot be null");
         checkState();
 
-        team.setPlayerSuffix(CraftChatMessage.fromStringOrNull(suffix));
+        // Magma start
+        net.minecraft.network.chat.Component component = CraftChatMessage.fromStringOrNull(suffix);
+        if (!java.util.Objects.equals(component, team.getPlayerSuffix())) {
+            team.setPlayerSuffix(component);
+        }
+        // Magma end
     }
 
     @Override
@@ -85,7 +100,9 @@ final class CraftTeam extends CraftScoreboardComponent implements Team {
         Preconditions.checkArgument(color != null, "Color cannot be null");
         checkState();
 
-        team.setColor(CraftChatMessage.getColor(color));
+        if (team.getColor() != CraftChatMessage.getColor(color)) { // Magma - skip unchanged values
+            team.setColor(CraftChatMessage.getColor(color));
+        }
     }
 
     @Override
@@ -99,7 +116,9 @@ final class CraftTeam extends CraftScoreboardComponent implements Team {
     public void setAllowFriendlyFire(boolean enabled) {
         checkState();
 
-        team.setAllowFriendlyFire(enabled);
+        if (team.isAllowFriendlyFire() != enabled) { // Magma - skip unchanged values
+            team.setAllowFriendlyFire(enabled);
+        }
     }
 
     @Override
@@ -113,7 +132,9 @@ final class CraftTeam extends CraftScoreboardComponent implements Team {
     public void setCanSeeFriendlyInvisibles(boolean enabled) {
         checkState();
 
-        team.setSeeFriendlyInvisibles(enabled);
+        if (team.canSeeFriendlyInvisibles() != enabled) { // Magma - skip unchanged values
+            team.setSeeFriendlyInvisibles(enabled);
+        }
     }
 
     @Override
@@ -127,7 +148,9 @@ final class CraftTeam extends CraftScoreboardComponent implements Team {
     public void setNameTagVisibility(NameTagVisibility visibility) {
         checkState();
 
-        team.setNameTagVisibility(bukkitToNotch(visibility));
+        if (team.getNameTagVisibility() != bukkitToNotch(visibility)) { // Magma - skip unchanged values
+            team.setNameTagVisibility(bukkitToNotch(visibility));
+        }
     }
 
     @Override
@@ -1,11 +1,11 @@
 package org.bukkit.event;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.ListIterator;
-import java.util.Map.Entry;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.RegisteredListener;
 import org.jetbrains.annotations.NotNull;
@@ -15,23 +15,20 @@ import org.jetbrains.annotations.NotNull;
  */
 public class HandlerList {
 
-    /**
-     * Handler array. This field being an array is the key to this system's
-     * speed.
-     */
-    private volatile RegisteredListener[] handlers = null;
+    private static final EventPriority[] PRIORITIES = EventPriority.values();
+    private static final RegisteredListener[] EMPTY = new RegisteredListener[0];
 
     /**
-     * Dynamic handler lists. These are changed using register() and
-     * unregister() and are automatically baked to the handlers array any time
-     * they have changed.
+     * Immutable snapshot of the handler slots, replaced as a whole by
+     * register() and unregister(). Dispatch reads the volatile field and bakes
+     * the snapshot on first use, so it never waits for a registration.
      */
-    private final EnumMap<EventPriority, ArrayList<RegisteredListener>> handlerslots;
+    private volatile Slots slots = Slots.empty();
 
     /**
      * List of all HandlerLists which have been created, for use in bakeAll()
      */
-    private static ArrayList<HandlerList> allLists = new ArrayList<HandlerList>();
+    private static final List<HandlerList> allLists = new CopyOnWriteArrayList<HandlerList>();
 
     /**
      * Bake all handler lists. Best used just after all normal event
@@ -39,10 +36,8 @@ public class HandlerList {
      * you're using fevents in a plugin system.
      */
     public static void bakeAll() {
-        synchronized (allLists) {
-            for (HandlerList h : allLists) {
-                h.bake();
-            }
+        for (HandlerList h : allLists) {
+            h.bake();
         }
     }
 
@@ -50,14 +45,9 @@ public class HandlerList {
      * Unregister all listeners from all handler lists.
      */
     public static void unregisterAll() {
-        synchronized (allLists) {
-            for (HandlerList h : allLists) {
-                synchronized (h) {
-                    for (List<RegisteredListener> list : h.handlerslots.values()) {
-                        list.clear();
-                    }
-                    h.handlers = null;
-                }
+        for (HandlerList h : allLists) {
+            synchronized (h) {
+                h.slots = Slots.empty();
             }
         }
     }
@@ -68,10 +58,8 @@ public class HandlerList {
      * @param plugin plugin to unregister
      */
     public static void unregisterAll(@NotNull Plugin plugin) {
-        synchronized (allLists) {
-            for (HandlerList h : allLists) {
-                h.unregister(plugin);
-            }
+        for (HandlerList h : allLists) {
+            h.unregister(plugin);
         }
     }
 
@@ -81,10 +69,8 @@ public class HandlerList {
      * @param listener listener to unregister
      */
     public static void unregisterAll(@NotNull Listener listener) {
-        synchronized (allLists) {
-            for (HandlerList h : allLists) {
-                h.unregister(listener);
-            }
+        for (HandlerList h : allLists) {
+            h.unregister(listener);
         }
     }
 
@@ -94,13 +80,7 @@ public class HandlerList {
      * The HandlerList is then added to meta-list for use in bakeAll()
      */
     public HandlerList() {
-        handlerslots = new EnumMap<EventPriority, ArrayList<RegisteredListener>>(EventPriority.class);
-        for (EventPriority o : EventPriority.values()) {
-            handlerslots.put(o, new ArrayList<RegisteredListener>());
-        }
-        synchronized (allLists) {
-            allLists.add(this);
-        }
+        allLists.add(this);
     }
 
     /**
@@ -109,10 +89,17 @@ public class HandlerList {
      * @param listener listener to register
      */
     public synchronized void register(@NotNull RegisteredListener listener) {
-        if (handlerslots.get(listener.getPriority()).contains(listener))
-            throw new IllegalStateException("This listener is already registered to priority " + listener.getPriority().toString());
-        handlers = null;
-        handlerslots.get(listener.getPriority()).add(listener);
+        int priority = listener.getPriority().ordinal();
+        RegisteredListener[] slot = slots.byPriority[priority];
+        for (RegisteredListener registered : slot) {
+            if (registered.equals(listener))
+                throw new IllegalStateException("This listener is already registered to priority " + listener.getPriority().toString());
+        }
+        RegisteredListener[] updated = Arrays.copyOf(slot, slot.length + 1);
+        updated[slot.length] = listener;
+        RegisteredListener[][] byPriority = slots.byPriority.clone();
+        byPriority[priority] = updated;
+        slots = new Slots(byPriority);
     }
 
     /**
@@ -132,8 +119,18 @@ public class HandlerList {
      * @param listener listener to remove
      */
     public synchronized void unregister(@NotNull RegisteredListener listener) {
-        if (handlerslots.get(listener.getPriority()).remove(listener)) {
-            handlers = null;
+        int priority = listener.getPriority().ordinal();
+        RegisteredListener[] slot = slots.byPriority[priority];
+        for (int i = 0; i < slot.length; i++) {
+            if (slot[i].equals(listener)) {
+                RegisteredListener[] updated = new RegisteredListener[slot.length - 1];
+                System.arraycopy(slot, 0, updated, 0, i);
+                System.arraycopy(slot, i + 1, updated, i, slot.length - i - 1);
+                RegisteredListener[][] byPriority = slots.byPriority.clone();
+                byPriority[priority] = updated;
+                slots = new Slots(byPriority);
+                return;
+            }
         }
     }
 
@@ -142,17 +139,8 @@ public class HandlerList {
      *
      * @param plugin plugin to remove
      */
-    public synchronized void unregister(@NotNull Plugin plugin) {
-        boolean changed = false;
-        for (List<RegisteredListener> list : handlerslots.values()) {
-            for (ListIterator<RegisteredListener> i = list.listIterator(); i.hasNext();) {
-                if (i.next().getPlugin().equals(plugin)) {
-                    i.remove();
-                    changed = true;
-                }
-            }
-        }
-        if (changed) handlers = null;
+    public void unregister(@NotNull Plugin plugin) {
+        removeIf(registered -> registered.getPlugin().equals(plugin));
     }
 
     /**
@@ -160,29 +148,33 @@ public class HandlerList {
      *
      * @param listener listener to remove
      */
-    public synchronized void unregister(@NotNull Listener listener) {
-        boolean changed = false;
-        for (List<RegisteredListener> list : handlerslots.values()) {
-            for (ListIterator<RegisteredListener> i = list.listIterator(); i.hasNext();) {
-                if (i.next().getListener().equals(listener)) {
-                    i.remove();
+    public void unregister(@NotNull Listener listener) {
+        removeIf(registered -> registered.getListener().equals(listener));
+    }
+
+    private void removeIf(@NotNull Predicate<RegisteredListener> filter) {
+        // Most lists hold nothing to remove, check the snapshot before taking the lock
+        if (!slots.anyMatch(filter)) return;
+        synchronized (this) {
+            RegisteredListener[][] byPriority = slots.byPriority.clone();
+            boolean changed = false;
+            for (int i = 0; i < byPriority.length; i++) {
+                RegisteredListener[] slot = byPriority[i];
+                RegisteredListener[] kept = Arrays.stream(slot).filter(filter.negate()).toArray(RegisteredListener[]::new);
+                if (kept.length != slot.length) {
+                    byPriority[i] = kept;
                     changed = true;
                 }
             }
+            if (changed) slots = new Slots(byPriority);
         }
-        if (changed) handlers = null;
     }
 
     /**
      * Bake HashMap and ArrayLists to 2d array - does nothing if not necessary
      */
-    public synchronized void bake() {
-        if (handlers != null) return; // don't re-bake when still valid
-        List<RegisteredListener> entries = new ArrayList<RegisteredListener>();
-        for (Entry<EventPriority, ArrayList<RegisteredListener>> entry : handlerslots.entrySet()) {
-            entries.addAll(entry.getValue());
-        }
-        handlers = entries.toArray(new RegisteredListener[entries.size()]);
+    public void bake() {
+        slots.bake();
     }
 
     /**
@@ -192,9 +184,7 @@ public class HandlerList {
      */
     @NotNull
     public RegisteredListener[] getRegisteredListeners() {
-        RegisteredListener[] handlers;
-        while ((handlers = this.handlers) == null) bake(); // This prevents fringe cases of returning null
-        return handlers;
+        return slots.bake();
     }
 
     /**
@@ -207,16 +197,10 @@ public class HandlerList {
     @NotNull
     public static ArrayList<RegisteredListener> getRegisteredListeners(@NotNull Plugin plugin) {
         ArrayList<RegisteredListener> listeners = new ArrayList<RegisteredListener>();
-        synchronized (allLists) {
-            for (HandlerList h : allLists) {
-                synchronized (h) {
-                    for (List<RegisteredListener> list : h.handlerslots.values()) {
-                        for (RegisteredListener listener : list) {
-                            if (listener.getPlugin().equals(plugin)) {
-                                listeners.add(listener);
-                            }
-                        }
-                    }
+        for (HandlerList h : allLists) {
+            for (RegisteredListener listener : h.getRegisteredListeners()) {
+                if (listener.getPlugin().equals(plugin)) {
+                    listeners.add(listener);
                 }
             }
         }
@@ -228,11 +212,56 @@ public class HandlerList {
      *
      * @return the list of all handler lists
      */
-    @SuppressWarnings("unchecked")
     @NotNull
     public static ArrayList<HandlerList> getHandlerLists() {
-        synchronized (allLists) {
-            return (ArrayList<HandlerList>) allLists.clone();
+        return new ArrayList<HandlerList>(allLists);
+    }
+
+    private static final class Slots {
+
+        private final RegisteredListener[][] byPriority;
+        /**
+         * Handler array. This field being an array is the key to this system's
+         * speed. Baking is deterministic, so racing threads publish equal arrays.
+         */
+        private volatile RegisteredListener[] handlers;
+
+        private Slots(@NotNull RegisteredListener[][] byPriority) {
+            this.byPriority = byPriority;
+        }
+
+        @NotNull
+        private static Slots empty() {
+            RegisteredListener[][] byPriority = new RegisteredListener[PRIORITIES.length][];
+            Arrays.fill(byPriority, EMPTY);
+            return new Slots(byPriority);
+        }
+
+        @NotNull
+        private RegisteredListener[] bake() {
+            RegisteredListener[] baked = handlers;
+            if (baked != null) return baked; // don't re-bake when still valid
+            int size = 0;
+            for (RegisteredListener[] slot : byPriority) {
+                size += slot.length;
+            }
+            baked = new RegisteredListener[size];
+            int index = 0;
+            for (RegisteredListener[] slot : byPriority) {
+                System.arraycopy(slot, 0, baked, index, slot.length);
+                index += slot.length;
+            }
+            handlers = baked;
+            return baked;
+        }
+
+        private boolean anyMatch(@NotNull Predicate<RegisteredListener> filter) {
+            for (RegisteredListener[] slot : byPriority) {
+                for (RegisteredListener listener : slot) {
+                    if (filter.test(listener)) return true;
+                }
+            }
+            return false;
         }
     }
 }
@@ -28,17 +28,6 @@ public final class MapPalette {
         return new Color(r, g, b, a);
     }
 
-    private static double getDistance(@NotNull Color c1, @NotNull Color c2) {
-        double rmean = (c1.getRed() + c2.getRed()) / 2.0;
-        double r = c1.getRed() - c2.getRed();
-        double g = c1.getGreen() - c2.getGreen();
-        int b = c1.getBlue() - c2.getBlue();
-        double weightR = 2 + rmean / 256.0;
-        double weightG = 4.0;
-        double weightB = 2 + (255 - rmean) / 256.0;
-        return weightR * r * r + weightG * g * g + weightB * b * b;
-    }
-
     @NotNull
     static final Color[] colors = {
         c(0, 0, 0, 0), c(0, 0, 0, 0), c(0, 0, 0, 0), c(0, 0, 0, 0),
@@ -105,6 +94,66 @@ public final class MapPalette {
         c(89, 117, 105), c(109, 144, 129), c(127, 167, 150), c(67, 88, 79)
     };
 
+    // Magma start - palette channels as primitives so matching does not go through Color
+    private static final int[] red = new int[colors.length];
+    private static final int[] green = new int[colors.length];
+    private static final int[] blue = new int[colors.length];
+
+    static {
+        for (int i = 0; i < colors.length; i++) {
+            red[i] = colors[i].getRed();
+            green[i] = colors[i].getGreen();
+            blue[i] = colors[i].getBlue();
+        }
+    }
+
+    private static byte matchRgb(int r, int g, int b) {
+        int index = 0;
+        double best = -1;
+
+        for (int i = 4; i < colors.length; i++) {
+            // The green term alone is a lower bound of the distance, skip the rest when it cannot win
+            int dg = g - green[i];
+            double greenTerm = 4.0 * dg * dg;
+            if (best != -1 && greenTerm >= best) {
+                continue;
+            }
+
+            double rmean = (r + red[i]) / 2.0;
+            double dr = r - red[i];
+            int db = b - blue[i];
+            double distance = (2 + rmean / 256.0) * dr * dr + greenTerm + (2 + (255 - rmean) / 256.0) * db * db;
+            if (distance < best || best == -1) {
+                best = distance;
+                index = i;
+            }
+        }
+
+        // Minecraft has 143 colors, some of which have negative byte representations
+        return (byte) (index < 128 ? index : -129 + (index - 127));
+    }
+
+    private static byte matchArgb(int argb) {
+        if ((argb >>> 24) < 128) return 0;
+
+        if (mapColorCache != null && mapColorCache.isCached()) {
+            return mapColorCache.matchColor(argb & 0xFFFFFF);
+        }
+        return matchRgb((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF);
+    }
+
+    private static void diffuse(int[] current, int[] next, int offset, int error) {
+        current[offset + 3] += error * 7;
+        next[offset - 3] += error * 3;
+        next[offset] += error * 5;
+        next[offset + 3] += error;
+    }
+
+    private static int clamp(int value) {
+        return value < 0 ? 0 : Math.min(value, 255);
+    }
+    // Magma end
+
     // Interface
     /**
      * @deprecated Magic value
@@ -210,9 +259,81 @@ public final class MapPalette {
         int[] pixels = new int[temp.getWidth() * temp.getHeight()];
         temp.getRGB(0, 0, temp.getWidth(), temp.getHeight(), pixels, 0, temp.getWidth());
 
-        byte[] result = new byte[temp.getWidth() * temp.getHeight()];
-        for (int i = 0; i < pixels.length; i++) {
-            result[i] = matchColor(new Color(pixels[i], true));
+        return convertPixels(pixels);
+    }
+
+    /**
+     * Convert ARGB pixels to palette indices. Pixels with an alpha below 128
+     * become transparent.
+     *
+     * @param argb The pixels to convert, as returned by
+     * {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)}.
+     * @return A byte[] containing the palette index of every pixel.
+     * @deprecated Magic value
+     */
+    @Deprecated
+    @NotNull
+    public static byte[] convertPixels(@NotNull int[] argb) {
+        byte[] result = new byte[argb.length];
+        int last = 0;
+        byte lastMatch = 0;
+        for (int i = 0; i < argb.length; i++) {
+            int pixel = argb[i];
+            if (i == 0 || pixel != last) {
+                last = pixel;
+                lastMatch = matchArgb(pixel);
+            }
+            result[i] = lastMatch;
+        }
+        return result;
+    }
+
+    /**
+     * Convert ARGB pixels to palette indices, optionally spreading the
+     * matching error to the neighbouring pixels (Floyd-Steinberg dithering).
+     *
+     * @param argb The pixels to convert, row by row.
+     * @param width The width of a row.
+     * @param dither Whether to dither the result.
+     * @return A byte[] containing the palette index of every pixel.
+     * @deprecated Magic value
+     */
+    @Deprecated
+    @NotNull
+    public static byte[] convertPixels(@NotNull int[] argb, int width, boolean dither) {
+        Preconditions.checkArgument(width > 0 && argb.length % width == 0, "pixel count (%s) is not a multiple of the width (%s)", argb.length, width);
+        if (!dither) {
+            return convertPixels(argb);
+        }
+
+        byte[] result = new byte[argb.length];
+        // Accumulated error * 16 per channel, padded by one pixel on both sides
+        int[] current = new int[(width + 2) * 3];
+        int[] next = new int[(width + 2) * 3];
+        for (int y = 0; y < argb.length / width; y++) {
+            for (int x = 0; x < width; x++) {
+                int pixel = argb[y * width + x];
+                if ((pixel >>> 24) < 128) {
+                    result[y * width + x] = 0;
+                    continue;
+                }
+
+                int e = (x + 1) * 3;
+                int r = clamp(((pixel >> 16) & 0xFF) + current[e] / 16);
+                int g = clamp(((pixel >> 8) & 0xFF) + current[e + 1] / 16);
+                int b = clamp((pixel & 0xFF) + current[e + 2] / 16);
+                byte match = matchArgb(0xFF000000 | r << 16 | g << 8 | b);
+                result[y * width + x] = match;
+
+                int index = match >= 0 ? match : match + 256;
+                diffuse(current, next, e, r - red[index]);
+                diffuse(current, next, e + 1, g - green[index]);
+                diffuse(current, next, e + 2, b - blue[index]);
+            }
+            int[] swap = current;
+            current = next;
+            next = swap;
+            java.util.Arrays.fill(next, 0);
         }
         return result;
     }
@@ -229,7 +350,7 @@ public final class MapPalette {
      */
     @Deprecated
     public static byte matchColor(int r, int g, int b) {
-        return matchColor(new Color(r, g, b));
+        return matchArgb(0xFF000000 | (r & 0xFF) << 16 | (g & 0xFF) << 8 | (b & 0xFF)); // Magma - skip the Color allocation
     }
 
     /**
@@ -248,19 +369,7 @@ public final class MapPalette {
             return mapColorCache.matchColor(color);
         }
 
-        int index = 0;
-        double best = -1;
-
-        for (int i = 4; i < colors.length; i++) {
-            double distance = getDistance(color, colors[i]);
-            if (distance < best || best == -1) {
-                best = distance;
-                index = i;
-            }
-        }
-
-        // Minecraft has 143 colors, some of which have negative byte representations
-        return (byte) (index < 128 ? index : -129 + (index - 127));
+        return matchRgb(color.getRed(), color.getGreen(), color.getBlue());
     }
 
     /**
@@ -315,5 +424,19 @@ public final class MapPalette {
          */
         @Deprecated
         byte matchColor(@NotNull Color color);
+
+        /**
+         * Get the cached index of the closest matching color in the palette to the given
+         * RGB color.
+         *
+         * @param rgb The color to match, as 0xRRGGBB.
+         * @return The index in the palette.
+         * @throws IllegalStateException if {@link #isCached()} returns false
+         * @deprecated Magic value
+         */
+        @Deprecated
+        default byte matchColor(int rgb) {
+            return matchColor(new Color(rgb));
+        }
     }
 }
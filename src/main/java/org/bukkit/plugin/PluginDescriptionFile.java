@@ -140,6 +140,10 @@ import org.yaml.snakeyaml.representer.Representer;
  *     <td><code>libraries</code></td>
  *     <td>{@link #getLibraries() ()}</td>
  *     <td>The libraries to be linked with this plugin</td>
+ * </tr><tr>
+ *     <td><code>parallel-load</code></td>
+ *     <td>{@link #isParallelLoad()}</td>
+ *     <td>Whether onLoad may run on a worker thread</td>
  * </tr>
  * </table>
  * <p>
@@ -258,6 +262,7 @@ public final class PluginDescriptionFile {
     private Set<PluginAwareness> awareness = ImmutableSet.of();
     private String apiVersion = null;
     private List<String> libraries = ImmutableList.of();
+    private boolean parallelLoad = false;
 
     public PluginDescriptionFile(@NotNull final InputStream stream) throws InvalidDescriptionException {
         loadMap(asMap(YAML.get().load(stream)));
@@ -616,6 +621,28 @@ public final class PluginDescriptionFile {
         return loadBefore;
     }
 
+    /**
+     * Gives whether the plugin's {@link Plugin#onLoad()} is safe to run on a
+     * worker thread, concurrently with other plugins that do not depend on
+     * it. Only used when the server enables parallel plugin loading.
+     * <ul>
+     * <li>Dependencies declared in {@link #getDepend()}, {@link
+     *     #getSoftDepend()} and {@link #getLoadBefore()} are always loaded
+     *     first.
+     * <li>Server state must not be touched from onLoad unless it is handed
+     *     to the main thread.
+     * </ul>
+     * <p>
+     * In the plugin.yml, this entry is named <code>parallel-load</code>.
+     * <p>
+     * Example:<blockquote><pre>parallel-load: true</pre></blockquote>
+     *
+     * @return true if onLoad may run on a worker thread
+     */
+    public boolean isParallelLoad() {
+        return parallelLoad;
+    }
+
     /**
      * Gives the token to prefix plugin-specific logging messages with.
      * <ul>
@@ -1177,6 +1204,10 @@ public final class PluginDescriptionFile {
         if (map.get("prefix") != null) {
             prefix = map.get("prefix").toString();
         }
+
+        if (map.get("parallel-load") != null) {
+            parallelLoad = Boolean.parseBoolean(map.get("parallel-load").toString());
+        }
     }
 
     @NotNull
@@ -1254,6 +1285,10 @@ public final class PluginDescriptionFile {
             map.put("prefix", prefix);
         }
 
+        if (parallelLoad) {
+            map.put("parallel-load", true);
+        }
+
         return map;
     }
 
@@ -21,6 +21,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -39,6 +41,8 @@ import org.bukkit.permissions.PermissionDefault;
 import org.bukkit.util.FileUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.magmafoundation.magma.plugin.DeferredEventDispatcher;
+import org.magmafoundation.magma.plugin.DeferredRegisteredListener;
 
 /**
  * Handles all plugin management from the Server
@@ -46,8 +50,8 @@ import org.jetbrains.annotations.Nullable;
 public final class SimplePluginManager implements PluginManager {
     private final Server server;
     private final Map<Pattern, PluginLoader> fileAssociations = new HashMap<Pattern, PluginLoader>();
-    private final List<Plugin> plugins = new ArrayList<Plugin>();
-    private final Map<String, Plugin> lookupNames = new HashMap<String, Plugin>();
+    private final List<Plugin> plugins = new CopyOnWriteArrayList<Plugin>(); // Magma - lookups without locking
+    private final Map<String, Plugin> lookupNames = new ConcurrentHashMap<String, Plugin>(); // Magma - lookups without locking
     private MutableGraph<String> dependencyGraph = GraphBuilder.directed().build();
     private File updateDirectory;
     private final SimpleCommandMap commandMap;
@@ -427,14 +431,14 @@ public final class SimplePluginManager implements PluginManager {
      */
     @Override
     @Nullable
-    public synchronized Plugin getPlugin(@NotNull String name) {
+    public Plugin getPlugin(@NotNull String name) { // Magma - not synchronized
         return lookupNames.get(name.replace(' ', '_'));
     }
 
     @Override
     @NotNull
-    public synchronized Plugin[] getPlugins() {
-        return plugins.toArray(new Plugin[plugins.size()]);
+    public Plugin[] getPlugins() { // Magma - not synchronized
+        return plugins.toArray(new Plugin[0]);
     }
 
     /**
@@ -497,6 +501,7 @@ public final class SimplePluginManager implements PluginManager {
     @Override
     public void disablePlugin(@NotNull final Plugin plugin) {
         if (plugin.isEnabled()) {
+            DeferredEventDispatcher.drain(plugin); // Magma - no deferred handler may run during onDisable
             try {
                 plugin.getPluginLoader().disablePlugin(plugin);
             } catch (Throwable ex) {
@@ -542,6 +547,7 @@ public final class SimplePluginManager implements PluginManager {
     public void clearPlugins() {
         synchronized (this) {
             disablePlugins();
+            DeferredEventDispatcher.shutdown(); // Magma
             plugins.clear();
             lookupNames.clear();
             dependencyGraph = GraphBuilder.directed().build();
@@ -579,11 +585,21 @@ public final class SimplePluginManager implements PluginManager {
     private void fireEvent(@NotNull Event event) {
         HandlerList handlers = event.getHandlers();
         RegisteredListener[] listeners = handlers.getRegisteredListeners();
+        List<DeferredRegisteredListener<?, ?>> deferred = null; // Magma
 
         for (RegisteredListener registration : listeners) {
             if (!registration.getPlugin().isEnabled()) {
                 continue;
             }
+            // Magma start - deferred listeners are queued once the outcome of the event is final
+            if (registration instanceof DeferredRegisteredListener) {
+                if (deferred == null) {
+                    deferred = new ArrayList<DeferredRegisteredListener<?, ?>>();
+                }
+                deferred.add((DeferredRegisteredListener<?, ?>) registration);
+                continue;
+            }
+            // Magma end
 
             try {
                 registration.callEvent(event);
@@ -604,6 +620,13 @@ public final class SimplePluginManager implements PluginManager {
                 server.getLogger().log(Level.SEVERE, "Could not pass event " + event.getEventName() + " to " + registration.getPlugin().getDescription().getFullName(), ex);
             }
         }
+        // Magma start
+        if (deferred != null) {
+            for (DeferredRegisteredListener<?, ?> registration : deferred) {
+                registration.callEvent(event);
+            }
+        }
+        // Magma end
     }
 
     @Override
@@ -653,6 +676,22 @@ public final class SimplePluginManager implements PluginManager {
         }
     }
 
+    // Magma start
+    /**
+     * Registers a listener created by {@link org.magmafoundation.magma.api.DeferredEvents}.
+     *
+     * @param event Event type to register
+     * @param listener Deferred listener to register
+     */
+    public void registerDeferredEvent(@NotNull Class<? extends Event> event, @NotNull DeferredRegisteredListener<?, ?> listener) {
+        if (!listener.getPlugin().isEnabled()) {
+            throw new IllegalPluginAccessException("Plugin attempted to register " + event + " while not enabled");
+        }
+
+        getEventListeners(event).register(listener);
+    }
+    // Magma end
+
     @NotNull
     private HandlerList getEventListeners(@NotNull Class<? extends Event> type) {
         try {
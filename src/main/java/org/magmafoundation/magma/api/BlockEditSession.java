@@ -0,0 +1,123 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.api;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.craftbukkit.CraftWorld;
+import org.bukkit.craftbukkit.block.data.CraftBlockData;
+import org.magmafoundation.magma.world.BlockEditBuffer;
+
+import javax.annotation.Nullable;
+
+/**
+ * BlockEditSession
+ * <p>
+ * Batches block changes for large edits. Changes are queued with {@link #setBlock} and written by {@link #apply()}
+ * directly into the chunks, without block events, physics (unless enabled), block snapshots or one packet per block.
+ * Nearby players receive one section update per changed section on the next tick.
+ * <p>
+ * Must be applied on the server thread.
+ */
+public class BlockEditSession {
+
+    private final CraftWorld world;
+    private final BlockEditBuffer buffer;
+    private boolean physics;
+    private boolean recordUndo;
+    @Nullable
+    private BlockEditSession undo;
+
+    private BlockEditSession(CraftWorld world, BlockEditBuffer buffer) {
+        this.world = world;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates an empty edit session for a world.
+     *
+     * @param world the world to edit.
+     * @return BlockEditSession - new session, physics and undo recording disabled.
+     */
+    public static BlockEditSession create(World world) {
+        return new BlockEditSession((CraftWorld) world, new BlockEditBuffer());
+    }
+
+    /**
+     * Enables block placement logic and neighbour updates for the changed blocks, sent once per position after
+     * every change has been written.
+     */
+    public BlockEditSession physics(boolean physics) {
+        this.physics = physics;
+        return this;
+    }
+
+    /**
+     * Records the previous blocks, including block entity data, so the edit can be reverted with {@link #getUndo()}.
+     */
+    public BlockEditSession recordUndo(boolean recordUndo) {
+        this.recordUndo = recordUndo;
+        return this;
+    }
+
+    public BlockEditSession setBlock(int x, int y, int z, BlockData data) {
+        this.buffer.add(x, y, z, ((CraftBlockData) data).getState());
+        return this;
+    }
+
+    public BlockEditSession setBlock(int x, int y, int z, Material material) {
+        return setBlock(x, y, z, material.createBlockData());
+    }
+
+    public BlockEditSession setBlock(Location location, BlockData data) {
+        return setBlock(location.getBlockX(), location.getBlockY(), location.getBlockZ(), data);
+    }
+
+    /**
+     * @return int - number of queued changes.
+     */
+    public int size() {
+        return this.buffer.size();
+    }
+
+    /**
+     * Writes the queued changes into the world and clears the queue.
+     *
+     * @return int - number of blocks that actually changed.
+     */
+    public int apply() {
+        BlockEditBuffer undoBuffer = this.recordUndo ? new BlockEditBuffer() : null;
+        int changed = this.buffer.apply(this.world.getHandle(), this.physics, undoBuffer);
+        this.buffer.clear();
+        this.undo = undoBuffer != null ? new BlockEditSession(this.world, undoBuffer).physics(this.physics) : null;
+        return changed;
+    }
+
+    /**
+     * The session reverting the last {@link #apply()}, only available when undo recording was enabled.
+     *
+     * @return BlockEditSession - session restoring the previous blocks, or null.
+     */
+    @Nullable
+    public BlockEditSession getUndo() {
+        return this.undo;
+    }
+}
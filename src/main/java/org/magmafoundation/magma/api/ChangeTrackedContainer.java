@@ -0,0 +1,38 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.api;
+
+/**
+ * ChangeTrackedContainer
+ * <p>
+ * Implemented by a {@link net.minecraft.world.Container}, an {@link net.minecraftforge.items.IItemHandler} or a
+ * {@link net.minecraft.world.inventory.Slot} that reports its changes, so open menus only compare its slots against
+ * the client when it actually changed. Containers that do not implement it are compared every tick as usual.
+ */
+public interface ChangeTrackedContainer {
+
+    /**
+     * A counter that changes whenever the content of any slot may have changed, including changes made by mutating a
+     * returned {@link net.minecraft.world.item.ItemStack} that the container is told about. Changes it misses are picked
+     * up by the periodic full comparison of open menus. Its value has no meaning beyond being different after a change.
+     *
+     * @return long - the current modification count.
+     */
+    long getModificationCount();
+}
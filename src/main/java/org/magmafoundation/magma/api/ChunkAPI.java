@@ -0,0 +1,139 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.api;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import net.minecraft.server.level.ServerLevel;
+import org.bukkit.Chunk;
+import org.bukkit.craftbukkit.CraftChunk;
+import org.bukkit.craftbukkit.entity.CraftEntity;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.magmafoundation.magma.forge.ForgeInject;
+import org.magmafoundation.magma.world.ChunkEntityIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ChunkAPI
+ * <p>
+ * Allocation light entity queries for loaded chunks. Unlike {@link Chunk#getEntities()} none of these methods load
+ * chunks or entities, chunks whose entities are not loaded are reported as empty.
+ */
+public class ChunkAPI {
+
+    /**
+     * Visits the entities of a loaded chunk without building an array. The entities are collected before the first
+     * call, so the consumer may remove or teleport them.
+     *
+     * @param chunk the chunk to visit.
+     * @param consumer called for every entity in the chunk.
+     */
+    public static void forEachEntity(Chunk chunk, Consumer<? super Entity> consumer) {
+        CraftChunk craftChunk = (CraftChunk) chunk;
+        ChunkEntityIndex.forEachEntity(craftChunk.getCraftWorld().getHandle(), chunk.getX(), chunk.getZ(), entity -> {
+            CraftEntity bukkitEntity = entity.getBukkitEntity();
+            if (bukkitEntity != null) {
+                consumer.accept(bukkitEntity);
+            }
+        });
+    }
+
+    /**
+     * Counts the entities of a loaded chunk.
+     *
+     * @param chunk the chunk to count.
+     * @return int - number of entities.
+     */
+    public static int getEntityCount(Chunk chunk) {
+        CraftChunk craftChunk = (CraftChunk) chunk;
+        return ChunkEntityIndex.countEntities(craftChunk.getCraftWorld().getHandle(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Counts the entities of a loaded chunk by type, the result is cached until the next tick.
+     *
+     * @param chunk the chunk to count.
+     * @return Map - entity counts, modded entity types without a Bukkit type are counted as {@link EntityType#UNKNOWN}.
+     */
+    public static Map<EntityType, Integer> getEntityCountsByType(Chunk chunk) {
+        CraftChunk craftChunk = (CraftChunk) chunk;
+        Object2IntMap<net.minecraft.world.entity.EntityType<?>> counts = ChunkEntityIndex.countEntitiesByType(craftChunk.getCraftWorld().getHandle(), chunk.getX(), chunk.getZ());
+        Map<EntityType, Integer> result = new EnumMap<>(EntityType.class);
+        for (Object2IntMap.Entry<net.minecraft.world.entity.EntityType<?>> entry : counts.object2IntEntrySet()) {
+            result.merge(toBukkit(entry.getKey()), entry.getIntValue(), Integer::sum);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the block entities of a loaded chunk.
+     *
+     * @param chunk the chunk to count.
+     * @return int - number of block entities.
+     */
+    public static int getTileEntityCount(Chunk chunk) {
+        CraftChunk craftChunk = (CraftChunk) chunk;
+        return ChunkEntityIndex.countBlockEntities(craftChunk.getCraftWorld().getHandle(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Collects the entities of many loaded chunks in one call.
+     *
+     * @param chunks the chunks to query.
+     * @return Map - entities per chunk, in iteration order of the given collection.
+     */
+    public static Map<Chunk, List<Entity>> getEntities(Collection<? extends Chunk> chunks) {
+        Map<Chunk, List<Entity>> result = new IdentityHashMap<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            List<Entity> entities = new ArrayList<>();
+            forEachEntity(chunk, entities::add);
+            result.put(chunk, entities);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the entities of many loaded chunks in one call.
+     *
+     * @param chunks the chunks to query.
+     * @return int[] - entity counts, in iteration order of the given collection.
+     */
+    public static int[] getEntityCounts(Collection<? extends Chunk> chunks) {
+        int[] counts = new int[chunks.size()];
+        int i = 0;
+        for (Chunk chunk : chunks) {
+            ServerLevel level = ((CraftChunk) chunk).getCraftWorld().getHandle();
+            counts[i++] = ChunkEntityIndex.countEntities(level, chunk.getX(), chunk.getZ());
+        }
+        return counts;
+    }
+
+    private static EntityType toBukkit(net.minecraft.world.entity.EntityType<?> type) {
+        String name = ForgeInject.ENTITY_TYPES.get(type);
+        EntityType bukkitType = EntityType.fromName(name != null ? name : net.minecraft.world.entity.EntityType.getKey(type).getPath());
+        return bukkitType == null ? EntityType.UNKNOWN : bukkitType;
+    }
+}
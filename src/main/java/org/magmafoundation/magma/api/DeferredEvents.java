@@ -0,0 +1,88 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.api;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.SimplePluginManager;
+import org.magmafoundation.magma.plugin.DeferredRegisteredListener;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * DeferredEvents
+ * <p>
+ * Registers event handlers that only observe an event, such as logging, database writes or statistics, and run on a
+ * worker thread instead of during the event dispatch.
+ * <p>
+ * Once every other handler has seen the event, the snapshot function is called on the thread that fired it. It must
+ * copy what the handler needs into an immutable value, for example a record of names, UUIDs and numbers, and must not
+ * return the event or live players, blocks or items. Only that value is passed to the handler on the worker thread, so
+ * the handler must not access the world or other state owned by the server thread. A snapshot of {@code null} skips
+ * the handler.
+ * <p>
+ * Calls of the same registration always run on the same worker, in the order the events were fired. Calls may be
+ * dropped when the worker queue is full, depending on {@code events.deferred.overflow}. Queued calls finish, or are
+ * dropped, before the plugin is disabled.
+ */
+public final class DeferredEvents {
+
+    private DeferredEvents() {
+    }
+
+    /**
+     * Registers a deferred handler at {@link EventPriority#NORMAL}, also called for cancelled events.
+     *
+     * @see #register(Plugin, Class, EventPriority, boolean, Function, Consumer)
+     */
+    public static <E extends Event, T> Listener register(Plugin plugin, Class<E> eventClass, Function<? super E, ? extends T> snapshot, Consumer<? super T> handler) {
+        return register(plugin, eventClass, EventPriority.NORMAL, false, snapshot, handler);
+    }
+
+    /**
+     * Registers a deferred handler.
+     *
+     * @param plugin the plugin owning the handler, it must be enabled.
+     * @param eventClass the event to handle.
+     * @param priority the order among the deferred handlers of the event, they all run after the normal handlers.
+     * @param ignoreCancelled skip events that are cancelled once every normal handler has run.
+     * @param snapshot takes an immutable value of the event on the firing thread.
+     * @param handler called with the value on a worker thread.
+     * @return Listener - the listener of the registration, for {@link org.bukkit.event.HandlerList#unregisterAll(Listener)}.
+     */
+    public static <E extends Event, T> Listener register(Plugin plugin, Class<E> eventClass, EventPriority priority, boolean ignoreCancelled, Function<? super E, ? extends T> snapshot, Consumer<? super T> handler) {
+        Preconditions.checkArgument(plugin != null, "Plugin cannot be null");
+        Preconditions.checkArgument(eventClass != null, "Event class cannot be null");
+        Preconditions.checkArgument(priority != null, "Priority cannot be null");
+        Preconditions.checkArgument(snapshot != null, "Snapshot cannot be null");
+        Preconditions.checkArgument(handler != null, "Handler cannot be null");
+
+        Listener listener = new DeferredListener();
+        ((SimplePluginManager) Bukkit.getPluginManager()).registerDeferredEvent(eventClass, new DeferredRegisteredListener<>(listener, priority, plugin, ignoreCancelled, eventClass, snapshot, handler));
+        return listener;
+    }
+
+    private static final class DeferredListener implements Listener {
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.commands;
+
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraftforge.registries.ForgeRegistries;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.defaults.BukkitCommand;
+import org.jetbrains.annotations.NotNull;
+import org.magmafoundation.magma.profiler.BlockEntityTickProfiler;
+import org.magmafoundation.magma.profiler.TickHistogram;
+import org.magmafoundation.magma.ticking.BlockEntityTickThrottler;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+public class BlockEntityProfileCommand extends BukkitCommand {
+
+    private static final List<String> SUB_COMMANDS = Arrays.asList("start", "stop", "reset", "types", "chunks", "top", "throttle");
+    private static final DecimalFormat TIME_FORMAT = new DecimalFormat("#####0.00");
+
+    public BlockEntityProfileCommand(@NotNull String name) {
+        super(name);
+        this.description = "Profiles block entity tick times by type, chunk and position";
+        this.usageMessage = "/beprofile <start [seconds]|stop|reset|types [count]|chunks [count]|top [count]|throttle [reset]>";
+        this.setPermission("magma.command.beprofile");
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String currentAlias, @NotNull String[] args) {
+        if (!testPermission(sender)) return true;
+
+        if (args.length == 0) {
+            sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+            return true;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "start" -> {
+                int seconds = parseInt(args, 0);
+                BlockEntityTickProfiler.start(seconds);
+                sender.sendMessage(ChatColor.GREEN + "Block entity profiling started" + (seconds > 0 ? " for " + seconds + " seconds" : ""));
+            }
+            case "stop" -> {
+                BlockEntityTickProfiler.stop();
+                sender.sendMessage(ChatColor.GREEN + "Block entity profiling stopped");
+            }
+            case "reset" -> {
+                BlockEntityTickProfiler.reset();
+                sender.sendMessage(ChatColor.GREEN + "Block entity profiling data cleared");
+            }
+            case "types" -> {
+                List<Map.Entry<BlockEntityType<?>, TickHistogram>> types = new ArrayList<>(BlockEntityTickProfiler.getTypeTimings().entrySet());
+                types.sort(Comparator.comparingLong((Map.Entry<BlockEntityType<?>, TickHistogram> entry) -> entry.getValue().getTotalNanos()).reversed());
+                sendHeader(sender, "types");
+                for (Map.Entry<BlockEntityType<?>, TickHistogram> entry : types.subList(0, Math.min(types.size(), parseInt(args, 10)))) {
+                    TickHistogram histogram = entry.getValue();
+                    sender.sendMessage(ChatColor.GOLD + String.valueOf(ForgeRegistries.BLOCK_ENTITY_TYPES.getKey(entry.getKey())) + ChatColor.WHITE
+                        + " total: " + formatTime(histogram.getTotalNanos())
+                        + " avg: " + formatTime((long) histogram.getAverageNanos())
+                        + " p99: " + formatTime(histogram.getPercentileNanos(0.99))
+                        + " max: " + formatTime(histogram.getMaxNanos())
+                        + " ticks: " + histogram.getCount());
+                }
+            }
+            case "chunks" -> {
+                sendHeader(sender, "chunks");
+                for (BlockEntityTickProfiler.ChunkSample sample : BlockEntityTickProfiler.getTopChunks(parseInt(args, 10))) {
+                    TickHistogram histogram = sample.histogram();
+                    sender.sendMessage(ChatColor.GOLD + sample.dimension().location().toString() + " " + sample.pos().x + ", " + sample.pos().z + ChatColor.WHITE
+                        + " total: " + formatTime(histogram.getTotalNanos())
+                        + " avg: " + formatTime((long) histogram.getAverageNanos())
+                        + " max: " + formatTime(histogram.getMaxNanos()));
+                }
+            }
+            case "top" -> {
+                sendHeader(sender, "block entities");
+                for (BlockEntityTickProfiler.Sample sample : BlockEntityTickProfiler.getTopBlockEntities(parseInt(args, 10))) {
+                    sender.sendMessage(ChatColor.GOLD + String.valueOf(ForgeRegistries.BLOCK_ENTITY_TYPES.getKey(sample.getType())) + ChatColor.WHITE
+                        + " at " + sample.getDimension().location() + " " + sample.getPos().getX() + ", " + sample.getPos().getY() + ", " + sample.getPos().getZ()
+                        + " total: " + formatTime(sample.getTotalNanos())
+                        + " avg: " + formatTime((long) sample.getAverageNanos())
+                        + " max: " + formatTime(sample.getMaxNanos()));
+                }
+            }
+            case "throttle" -> {
+                if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+                    BlockEntityTickThrottler.resetCounters();
+                    sender.sendMessage(ChatColor.GREEN + "Block entity throttle counters cleared");
+                    return true;
+                }
+                if (!BlockEntityTickThrottler.isEnabled()) {
+                    sender.sendMessage(ChatColor.YELLOW + "Block entity throttling is disabled in magma.yml");
+                }
+                BlockEntityTickThrottler.getSkippedTicks().forEach((dimension, skipped) ->
+                    sender.sendMessage(ChatColor.GOLD + dimension.location().toString() + ChatColor.WHITE + " skipped by tile limiter: " + skipped));
+                BlockEntityTickThrottler.getTypeStates().forEach((type, state) -> {
+                    if (state.getInterval() > 1 || state.getDeferred() > 0) {
+                        sender.sendMessage(ChatColor.GOLD + String.valueOf(ForgeRegistries.BLOCK_ENTITY_TYPES.getKey(type)) + ChatColor.WHITE
+                            + " avg: " + formatTime((long) state.getAverageNanos())
+                            + " interval: " + state.getInterval()
+                            + " ticked: " + state.getTicked()
+                            + " deferred: " + state.getDeferred());
+                    }
+                });
+            }
+            default -> sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+        }
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, @NotNull String[] args) throws IllegalArgumentException {
+        if (args.length == 1) {
+            List<String> completions = new ArrayList<>();
+            for (String subCommand : SUB_COMMANDS) {
+                if (subCommand.startsWith(args[0].toLowerCase())) {
+                    completions.add(subCommand);
+                }
+            }
+            return completions;
+        }
+        return Collections.emptyList();
+    }
+
+    private void sendHeader(CommandSender sender, String what) {
+        sender.sendMessage(ChatColor.YELLOW + "Most expensive " + what + (BlockEntityTickProfiler.isRunning() ? " (profiling in progress)" : "") + ":");
+    }
+
+    private static int parseInt(String[] args, int def) {
+        if (args.length < 2) {
+            return def;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(args[1]));
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    private static String formatTime(long nanos) {
+        double micros = nanos / 1000D;
+        return micros >= 1000 ? TIME_FORMAT.format(micros / 1000) + "ms" : TIME_FORMAT.format(micros) + "μs";
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.commands;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.defaults.BukkitCommand;
+import org.jetbrains.annotations.NotNull;
+import org.magmafoundation.magma.configuration.MagmaConfig;
+import org.magmafoundation.magma.network.FlushConsolidation;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class NetworkStatsCommand extends BukkitCommand {
+
+    private static final List<String> SUB_COMMANDS = Arrays.asList("flush", "reset");
+    private static final DecimalFormat RATIO_FORMAT = new DecimalFormat("#####0.00");
+
+    public NetworkStatsCommand(@NotNull String name) {
+        super(name);
+        this.description = "Shows how many packets and bytes each socket flush of player connections carries";
+        this.usageMessage = "/netstats [flush|reset]";
+        this.setPermission("magma.command.netstats");
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String currentAlias, @NotNull String[] args) {
+        if (!testPermission(sender)) return true;
+
+        String action = args.length == 0 ? "flush" : args[0].toLowerCase();
+        switch (action) {
+            case "flush" -> sendFlush(sender);
+            case "reset" -> {
+                FlushConsolidation.resetCounters();
+                sender.sendMessage(ChatColor.GOLD + "Network counters reset.");
+            }
+            default -> sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+        }
+        return true;
+    }
+
+    private static void sendFlush(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "Flush consolidation" + ChatColor.WHITE
+            + " enabled: " + MagmaConfig.instance.networkFlushConsolidation.getValues()
+            + " flushes: " + FlushConsolidation.getFlushes()
+            + " packets: " + FlushConsolidation.getPackets()
+            + " bytes: " + FlushConsolidation.getBytes());
+        sender.sendMessage(ChatColor.GOLD + "Flush consolidation" + ChatColor.WHITE
+            + " packets/flush: " + RATIO_FORMAT.format(FlushConsolidation.getPacketsPerFlush())
+            + " bytes/flush: " + RATIO_FORMAT.format(FlushConsolidation.getBytesPerFlush()));
+    }
+
+    @NotNull
+    @Override
+    public List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, @NotNull String[] args) throws IllegalArgumentException {
+        if (args.length == 1) {
+            List<String> completions = new ArrayList<>();
+            for (String subCommand : SUB_COMMANDS) {
+                if (subCommand.startsWith(args[0].toLowerCase())) {
+                    completions.add(subCommand);
+                }
+            }
+            return completions;
+        }
+        return Collections.emptyList();
+    }
+}
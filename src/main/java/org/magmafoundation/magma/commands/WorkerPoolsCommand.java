@@ -0,0 +1,106 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.commands;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.defaults.BukkitCommand;
+import org.jetbrains.annotations.NotNull;
+import org.magmafoundation.magma.network.LoginAuthenticator;
+import org.magmafoundation.magma.plugin.DeferredEventDispatcher;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class WorkerPoolsCommand extends BukkitCommand {
+
+    private static final List<String> SUB_COMMANDS = Arrays.asList("login", "events");
+    private static final DecimalFormat TIME_FORMAT = new DecimalFormat("#####0.00");
+
+    public WorkerPoolsCommand(@NotNull String name) {
+        super(name);
+        this.description = "Shows the queue depth and latency of Magma's worker pools";
+        this.usageMessage = "/workerpools [login|events]";
+        this.setPermission("magma.command.workerpools");
+    }
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String currentAlias, @NotNull String[] args) {
+        if (!testPermission(sender)) return true;
+
+        String pool = args.length == 0 ? "all" : args[0].toLowerCase();
+        switch (pool) {
+            case "all" -> {
+                sendLogin(sender);
+                sendEvents(sender);
+            }
+            case "login" -> sendLogin(sender);
+            case "events" -> sendEvents(sender);
+            default -> sender.sendMessage(ChatColor.RED + "Usage: " + usageMessage);
+        }
+        return true;
+    }
+
+    private static void sendLogin(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "Login authenticator" + ChatColor.WHITE
+            + " queued: " + LoginAuthenticator.getQueueDepth()
+            + " active: " + LoginAuthenticator.getActiveCount()
+            + " completed: " + LoginAuthenticator.getCompleted()
+            + " rejected: " + LoginAuthenticator.getRejected());
+        sender.sendMessage(ChatColor.GOLD + "Login authenticator" + ChatColor.WHITE
+            + " avg wait: " + formatMillis(LoginAuthenticator.getAverageWaitMillis())
+            + " avg run: " + formatMillis(LoginAuthenticator.getAverageRunMillis())
+            + " max run: " + formatMillis(LoginAuthenticator.getMaxRunMillis()));
+    }
+
+    private static void sendEvents(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "Deferred events" + ChatColor.WHITE
+            + " queued: " + DeferredEventDispatcher.getQueueDepth()
+            + " submitted: " + DeferredEventDispatcher.getSubmitted()
+            + " completed: " + DeferredEventDispatcher.getCompleted()
+            + " dropped: " + DeferredEventDispatcher.getDropped()
+            + " inline: " + DeferredEventDispatcher.getRanInline());
+        sender.sendMessage(ChatColor.GOLD + "Deferred events" + ChatColor.WHITE
+            + " avg wait: " + formatMillis(DeferredEventDispatcher.getAverageWaitMillis())
+            + " avg run: " + formatMillis(DeferredEventDispatcher.getAverageRunMillis())
+            + " max run: " + formatMillis(DeferredEventDispatcher.getMaxRunMillis()));
+    }
+
+    @NotNull
+    @Override
+    public List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias, @NotNull String[] args) throws IllegalArgumentException {
+        if (args.length == 1) {
+            List<String> completions = new ArrayList<>();
+            for (String subCommand : SUB_COMMANDS) {
+                if (subCommand.startsWith(args[0].toLowerCase())) {
+                    completions.add(subCommand);
+                }
+            }
+            return completions;
+        }
+        return Collections.emptyList();
+    }
+
+    private static String formatMillis(double millis) {
+        return TIME_FORMAT.format(millis) + "ms";
+    }
+}
@@ -21,7 +21,10 @@ package org.magmafoundation.magma.configuration;
 import net.minecraft.server.MinecraftServer;
 import org.apache.commons.io.FileUtils;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.magmafoundation.magma.commands.BlockEntityProfileCommand;
 import org.magmafoundation.magma.commands.ModsCommand;
+import org.magmafoundation.magma.commands.NetworkStatsCommand;
+import org.magmafoundation.magma.commands.WorkerPoolsCommand;
 import org.magmafoundation.magma.configuration.value.Value;
 import org.magmafoundation.magma.configuration.value.values.BooleanValue;
 import org.magmafoundation.magma.configuration.value.values.IntValue;
@@ -58,6 +61,28 @@ public class MagmaConfig extends ConfigBase {
     public final BooleanValue debugWarnOnNullNBT = new BooleanValue(this, "debug.warn-on-null-nbt", false, "Prints a warning when an item tries to set an NBT tag to null");
     public final BooleanValue debugWarnOnUnknownEntity = new BooleanValue(this, "debug.warn-on-unknown-entity", false, "Prints a warning when an entity unknown to bukkit is spawned");
 
+    public final BooleanValue blockEntityThrottleEnabled = new BooleanValue(this, "blockentity.throttle.enabled", false, "Stagger the ticks of block entity types whose average tick time exceeds the budget");
+    public final IntValue blockEntityThrottleBudget = new IntValue(this, "blockentity.throttle.budget-micros", 200, "Average tick time in microseconds a block entity type may use before it is staggered");
+    public final IntValue blockEntityThrottleMaxInterval = new IntValue(this, "blockentity.throttle.max-interval", 4, "Maximum number of server ticks between two ticks of a throttled block entity");
+    public final StringArrayValue blockEntityThrottleExempt = new StringArrayValue(this, "blockentity.throttle.exempt", "minecraft:*", "Block entity types (or namespace:*) that are never throttled");
+
+    public final BooleanValue hopperCacheTargets = new BooleanValue(this, "hopper.cache-targets", true, "Let hoppers reuse the item handler of their source and target until its block entity is removed or the capability invalidated");
+
+    public final BooleanValue pluginsParallelLoad = new BooleanValue(this, "plugins.parallel-load", false, "Run onLoad of plugins declaring parallel-load: true on worker threads, in dependency order");
+    public final IntValue pluginsStartupReport = new IntValue(this, "plugins.startup-report", 5, "Number of slowest plugins to load and enable to log after startup, 0 disables the report");
+    public final IntValue eventsDeferredThreads = new IntValue(this, "events.deferred.threads", 2, "Number of worker threads running event handlers registered through DeferredEvents, 0 runs them on the firing thread after the other handlers");
+    public final IntValue eventsDeferredQueue = new IntValue(this, "events.deferred.queue", 4096, "Number of deferred handler calls that may wait for each worker thread");
+    public final StringValue eventsDeferredOverflow = new StringValue(this, "events.deferred.overflow", "drop-newest", "What to do with a deferred handler call when its worker queue is full: drop-newest, drop-oldest or caller-runs");
+
+    public final BooleanValue networkFlushConsolidation = new BooleanValue(this, "network.flush-consolidation.enabled", false, "Merge the socket flushes of player connections issued in the same network loop run");
+    public final IntValue networkFlushConsolidationMaxPending = new IntValue(this, "network.flush-consolidation.max-pending", 256, "Number of packets after which a consolidated connection is flushed anyway");
+    public final IntValue networkLoginAuthThreads = new IntValue(this, "network.login.auth-threads", 16, "Maximum number of threads verifying sessions and firing pre-login events of logging in players");
+    public final IntValue networkLoginAuthQueue = new IntValue(this, "network.login.auth-queue", 1024, "Number of logins that may wait for an authenticator thread before further logins are refused");
+    public final IntValue networkLoginAuthPerAddress = new IntValue(this, "network.login.auth-per-address", 0, "Number of logins from one address that may be authenticating at the same time, 0 disables the limit");
+    public final IntValue networkStatusCacheMillis = new IntValue(this, "network.status.cache-millis", 1000, "Milliseconds a server list ping response is reused while the ping event output is unchanged, 0 disables the cache");
+    public final BooleanValue networkStatusEventOnRefreshOnly = new BooleanValue(this, "network.status.event-on-refresh-only", false, "Only fire the server list ping event when the cached response has expired");
+    public final IntValue networkStatusRateLimit = new IntValue(this, "network.status.rate-limit", 0, "Maximum number of status requests per second from one address, 0 disables the limit");
+
     public final IntValue forgePacketCompressionThreshold = new IntValue(this, "forge.packet-compression-threshold", 8388608, "Maximum packet size before compression is applied, Default: 8388608 (8MB)");
 
     private final String HEADER = "This is the main configuration file for Magma.\n" +
@@ -118,6 +143,9 @@ public class MagmaConfig extends ConfigBase {
     @Override
     protected void addCommands() {
         commands.put("mods", new ModsCommand("mods"));
+        commands.put("beprofile", new BlockEntityProfileCommand("beprofile"));
+        commands.put("workerpools", new WorkerPoolsCommand("workerpools"));
+        commands.put("netstats", new NetworkStatsCommand("netstats"));
     }
 
     @Override
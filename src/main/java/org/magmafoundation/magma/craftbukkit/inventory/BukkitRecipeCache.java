@@ -0,0 +1,463 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.craftbukkit.inventory;
+
+import com.google.common.collect.MapMaker;
+import net.minecraft.world.item.crafting.Recipe;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.craftbukkit.inventory.CraftBlastingRecipe;
+import org.bukkit.craftbukkit.inventory.CraftCampfireRecipe;
+import org.bukkit.craftbukkit.inventory.CraftComplexRecipe;
+import org.bukkit.craftbukkit.inventory.CraftFurnaceRecipe;
+import org.bukkit.craftbukkit.inventory.CraftShapedRecipe;
+import org.bukkit.craftbukkit.inventory.CraftShapelessRecipe;
+import org.bukkit.craftbukkit.inventory.CraftSmokingRecipe;
+import org.bukkit.craftbukkit.inventory.CraftStonecuttingRecipe;
+import org.bukkit.inventory.BlastingRecipe;
+import org.bukkit.inventory.CampfireRecipe;
+import org.bukkit.inventory.CookingRecipe;
+import org.bukkit.inventory.FurnaceRecipe;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.RecipeChoice;
+import org.bukkit.inventory.ShapedRecipe;
+import org.bukkit.inventory.ShapelessRecipe;
+import org.bukkit.inventory.SmithingTransformRecipe;
+import org.bukkit.inventory.SmithingTrimRecipe;
+import org.bukkit.inventory.SmokingRecipe;
+import org.bukkit.inventory.StonecuttingRecipe;
+import org.bukkit.inventory.recipe.CookingBookCategory;
+import org.bukkit.inventory.recipe.CraftingBookCategory;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caches the Bukkit view of NMS recipes for the event paths that convert a recipe on every fire (furnace and campfire
+ * start events, crafting and smithing inventories). Entries are weakly keyed by recipe identity and the whole cache is
+ * dropped whenever the {@link net.minecraft.world.item.crafting.RecipeManager} contents change.
+ * <p>
+ * The cached view is read-only and handed out to every caller: its getters already return copies, and its setters
+ * throw {@link UnsupportedOperationException}. Smithing and complex recipes have no setters and are cached as
+ * converted. Recipe types this class does not know are converted on every call as before.
+ */
+public final class BukkitRecipeCache {
+
+    private static final Map<Recipe<?>, Optional<org.bukkit.inventory.Recipe>> CACHE = new MapMaker().weakKeys().makeMap();
+
+    private BukkitRecipeCache() {
+    }
+
+    /**
+     * @return the shared read-only Bukkit view of the recipe, or null if the recipe has no Bukkit representation
+     */
+    public static org.bukkit.inventory.Recipe get(Recipe<?> recipe) {
+        Optional<org.bukkit.inventory.Recipe> cached = CACHE.get(recipe);
+        if (cached == null) {
+            org.bukkit.inventory.Recipe bukkit = recipe.toBukkitRecipe();
+            if (bukkit == null) {
+                cached = Optional.empty();
+            } else {
+                org.bukkit.inventory.Recipe view = readOnly(recipe, bukkit);
+                if (view == null) {
+                    return bukkit;
+                }
+                cached = Optional.of(view);
+            }
+            CACHE.put(recipe, cached);
+        }
+        return cached.orElse(null);
+    }
+
+    /**
+     * Drops every cached conversion, called on recipe reload and when recipes are added or removed through Bukkit.
+     */
+    public static void invalidate() {
+        CACHE.clear();
+    }
+
+    /**
+     * @return a read-only copy of the converted recipe, or null if its type is unknown
+     */
+    private static org.bukkit.inventory.Recipe readOnly(Recipe<?> nms, org.bukkit.inventory.Recipe recipe) {
+        if (recipe instanceof CraftComplexRecipe || recipe instanceof SmithingTransformRecipe || recipe instanceof SmithingTrimRecipe) {
+            // No setters, every getter returns a copy
+            return recipe;
+        }
+        if (recipe instanceof ShapedRecipe shaped) {
+            ReadOnlyShapedRecipe view = nms instanceof net.minecraft.world.item.crafting.ShapedRecipe shapedNms ? new ReadOnlyShapedRecipe(shaped.getResult(), shapedNms) : new ReadOnlyShapedRecipe(shaped.getKey(), shaped.getResult());
+            view.setGroup(shaped.getGroup());
+            view.setCategory(shaped.getCategory());
+            view.shape(shaped.getShape());
+            for (Map.Entry<Character, RecipeChoice> entry : shaped.getChoiceMap().entrySet()) {
+                if (entry.getValue() != null) {
+                    view.setIngredient(entry.getKey(), entry.getValue());
+                }
+            }
+            view.frozen = true;
+            return view;
+        }
+        if (recipe instanceof ShapelessRecipe shapeless) {
+            ReadOnlyShapelessRecipe view = new ReadOnlyShapelessRecipe(shapeless.getKey(), shapeless.getResult());
+            view.setGroup(shapeless.getGroup());
+            view.setCategory(shapeless.getCategory());
+            for (RecipeChoice choice : shapeless.getChoiceList()) {
+                view.addIngredient(choice);
+            }
+            view.frozen = true;
+            return view;
+        }
+        if (recipe instanceof BlastingRecipe blasting) {
+            ReadOnlyBlastingRecipe view = new ReadOnlyBlastingRecipe(blasting.getKey(), blasting.getResult(), blasting.getInputChoice(), blasting.getExperience(), blasting.getCookingTime());
+            view.setGroup(blasting.getGroup());
+            view.setCategory(blasting.getCategory());
+            view.frozen = true;
+            return view;
+        }
+        if (recipe instanceof SmokingRecipe smoking) {
+            ReadOnlySmokingRecipe view = new ReadOnlySmokingRecipe(smoking.getKey(), smoking.getResult(), smoking.getInputChoice(), smoking.getExperience(), smoking.getCookingTime());
+            view.setGroup(smoking.getGroup());
+            view.setCategory(smoking.getCategory());
+            view.frozen = true;
+            return view;
+        }
+        if (recipe instanceof CampfireRecipe campfire) {
+            ReadOnlyCampfireRecipe view = new ReadOnlyCampfireRecipe(campfire.getKey(), campfire.getResult(), campfire.getInputChoice(), campfire.getExperience(), campfire.getCookingTime());
+            view.setGroup(campfire.getGroup());
+            view.setCategory(campfire.getCategory());
+            view.frozen = true;
+            return view;
+        }
+        if (recipe instanceof FurnaceRecipe furnace) {
+            ReadOnlyFurnaceRecipe view = new ReadOnlyFurnaceRecipe(furnace.getKey(), furnace.getResult(), furnace.getInputChoice(), furnace.getExperience(), furnace.getCookingTime());
+            view.setGroup(furnace.getGroup());
+            view.setCategory(furnace.getCategory());
+            view.frozen = true;
+            return view;
+        }
+        if (recipe instanceof StonecuttingRecipe stonecutting) {
+            ReadOnlyStonecuttingRecipe view = new ReadOnlyStonecuttingRecipe(stonecutting.getKey(), stonecutting.getResult(), stonecutting.getInputChoice());
+            view.setGroup(stonecutting.getGroup());
+            view.frozen = true;
+            return view;
+        }
+        return null;
+    }
+
+    private static void checkWritable(boolean frozen) {
+        if (frozen) {
+            throw new UnsupportedOperationException("Recipes passed to events and inventories are read-only");
+        }
+    }
+
+    private static final class ReadOnlyShapedRecipe extends CraftShapedRecipe {
+
+        private boolean frozen;
+
+        private ReadOnlyShapedRecipe(NamespacedKey key, ItemStack result) {
+            super(key, result);
+        }
+
+        private ReadOnlyShapedRecipe(ItemStack result, net.minecraft.world.item.crafting.ShapedRecipe recipe) {
+            super(result, recipe);
+        }
+
+        @Override
+        public ShapedRecipe shape(String... shape) {
+            checkWritable(frozen);
+            return super.shape(shape);
+        }
+
+        @Override
+        public ShapedRecipe setIngredient(char key, Material ingredient, int raw) {
+            checkWritable(frozen);
+            return super.setIngredient(key, ingredient, raw);
+        }
+
+        @Override
+        public ShapedRecipe setIngredient(char key, RecipeChoice ingredient) {
+            checkWritable(frozen);
+            return super.setIngredient(key, ingredient);
+        }
+
+        @Override
+        public void setGroup(String group) {
+            checkWritable(frozen);
+            super.setGroup(group);
+        }
+
+        @Override
+        public void setCategory(CraftingBookCategory category) {
+            checkWritable(frozen);
+            super.setCategory(category);
+        }
+    }
+
+    private static final class ReadOnlyShapelessRecipe extends CraftShapelessRecipe {
+
+        private boolean frozen;
+
+        private ReadOnlyShapelessRecipe(NamespacedKey key, ItemStack result) {
+            super(key, result);
+        }
+
+        @Override
+        public ShapelessRecipe addIngredient(int count, Material ingredient, int rawdata) {
+            checkWritable(frozen);
+            return super.addIngredient(count, ingredient, rawdata);
+        }
+
+        @Override
+        public ShapelessRecipe addIngredient(RecipeChoice ingredient) {
+            checkWritable(frozen);
+            return super.addIngredient(ingredient);
+        }
+
+        @Override
+        public ShapelessRecipe removeIngredient(RecipeChoice ingredient) {
+            checkWritable(frozen);
+            return super.removeIngredient(ingredient);
+        }
+
+        @Override
+        public ShapelessRecipe removeIngredient(int count, Material ingredient, int rawdata) {
+            checkWritable(frozen);
+            return super.removeIngredient(count, ingredient, rawdata);
+        }
+
+        @Override
+        public void setGroup(String group) {
+            checkWritable(frozen);
+            super.setGroup(group);
+        }
+
+        @Override
+        public void setCategory(CraftingBookCategory category) {
+            checkWritable(frozen);
+            super.setCategory(category);
+        }
+    }
+
+    private static final class ReadOnlyFurnaceRecipe extends CraftFurnaceRecipe {
+
+        private boolean frozen;
+
+        private ReadOnlyFurnaceRecipe(NamespacedKey key, ItemStack result, RecipeChoice source, float experience, int cookingTime) {
+            super(key, result, source, experience, cookingTime);
+        }
+
+        @Override
+        public FurnaceRecipe setInput(Material input) {
+            checkWritable(frozen);
+            return super.setInput(input);
+        }
+
+        @Override
+        public FurnaceRecipe setInputChoice(RecipeChoice input) {
+            checkWritable(frozen);
+            return super.setInputChoice(input);
+        }
+
+        @Override
+        public void setExperience(float experience) {
+            checkWritable(frozen);
+            super.setExperience(experience);
+        }
+
+        @Override
+        public void setCookingTime(int cookingTime) {
+            checkWritable(frozen);
+            super.setCookingTime(cookingTime);
+        }
+
+        @Override
+        public void setGroup(String group) {
+            checkWritable(frozen);
+            super.setGroup(group);
+        }
+
+        @Override
+        public void setCategory(CookingBookCategory category) {
+            checkWritable(frozen);
+            super.setCategory(category);
+        }
+    }
+
+    private static final class ReadOnlyBlastingRecipe extends CraftBlastingRecipe {
+
+        private boolean frozen;
+
+        private ReadOnlyBlastingRecipe(NamespacedKey key, ItemStack result, RecipeChoice source, float experience, int cookingTime) {
+            super(key, result, source, experience, cookingTime);
+        }
+
+        @Override
+        public CookingRecipe setInput(Material input) {
+            checkWritable(frozen);
+            return super.setInput(input);
+        }
+
+        @Override
+        public BlastingRecipe setInputChoice(RecipeChoice input) {
+            checkWritable(frozen);
+            return super.setInputChoice(input);
+        }
+
+        @Override
+        public void setExperience(float experience) {
+            checkWritable(frozen);
+            super.setExperience(experience);
+        }
+
+        @Override
+        public void setCookingTime(int cookingTime) {
+            checkWritable(frozen);
+            super.setCookingTime(cookingTime);
+        }
+
+        @Override
+        public void setGroup(String group) {
+            checkWritable(frozen);
+            super.setGroup(group);
+        }
+
+        @Override
+        public void setCategory(CookingBookCategory category) {
+            checkWritable(frozen);
+            super.setCategory(category);
+        }
+    }
+
+    private static final class ReadOnlySmokingRecipe extends CraftSmokingRecipe {
+
+        private boolean frozen;
+
+        private ReadOnlySmokingRecipe(NamespacedKey key, ItemStack result, RecipeChoice source, float experience, int cookingTime) {
+            super(key, result, source, experience, cookingTime);
+        }
+
+        @Override
+        public CookingRecipe setInput(Material input) {
+            checkWritable(frozen);
+            return super.setInput(input);
+        }
+
+        @Override
+        public SmokingRecipe setInputChoice(RecipeChoice input) {
+            checkWritable(frozen);
+            return super.setInputChoice(input);
+        }
+
+        @Override
+        public void setExperience(float experience) {
+            checkWritable(frozen);
+            super.setExperience(experience);
+        }
+
+        @Override
+        public void setCookingTime(int cookingTime) {
+            checkWritable(frozen);
+            super.setCookingTime(cookingTime);
+        }
+
+        @Override
+        public void setGroup(String group) {
+            checkWritable(frozen);
+            super.setGroup(group);
+        }
+
+        @Override
+        public void setCategory(CookingBookCategory category) {
+            checkWritable(frozen);
+            super.setCategory(category);
+        }
+    }
+
+    private static final class ReadOnlyCampfireRecipe extends CraftCampfireRecipe {
+
+        private boolean frozen;
+
+        private ReadOnlyCampfireRecipe(NamespacedKey key, ItemStack result, RecipeChoice source, float experience, int cookingTime) {
+            super(key, result, source, experience, cookingTime);
+        }
+
+        @Override
+        public CookingRecipe setInput(Material input) {
+            checkWritable(frozen);
+            return super.setInput(input);
+        }
+
+        @Override
+        public CampfireRecipe setInputChoice(RecipeChoice input) {
+            checkWritable(frozen);
+            return super.setInputChoice(input);
+        }
+
+        @Override
+        public void setExperience(float experience) {
+            checkWritable(frozen);
+            super.setExperience(experience);
+        }
+
+        @Override
+        public void setCookingTime(int cookingTime) {
+            checkWritable(frozen);
+            super.setCookingTime(cookingTime);
+        }
+
+        @Override
+        public void setGroup(String group) {
+            checkWritable(frozen);
+            super.setGroup(group);
+        }
+
+        @Override
+        public void setCategory(CookingBookCategory category) {
+            checkWritable(frozen);
+            super.setCategory(category);
+        }
+    }
+
+    private static final class ReadOnlyStonecuttingRecipe extends CraftStonecuttingRecipe {
+
+        private boolean frozen;
+
+        private ReadOnlyStonecuttingRecipe(NamespacedKey key, ItemStack result, RecipeChoice source) {
+            super(key, result, source);
+        }
+
+        @Override
+        public StonecuttingRecipe setInput(Material input) {
+            checkWritable(frozen);
+            return super.setInput(input);
+        }
+
+        @Override
+        public StonecuttingRecipe setInputChoice(RecipeChoice input) {
+            checkWritable(frozen);
+            return super.setInputChoice(input);
+        }
+
+        @Override
+        public void setGroup(String group) {
+            checkWritable(frozen);
+            super.setGroup(group);
+        }
+    }
+}
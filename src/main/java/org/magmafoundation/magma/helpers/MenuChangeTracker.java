@@ -0,0 +1,128 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.helpers;
+
+import net.minecraft.world.inventory.Slot;
+import net.minecraftforge.items.SlotItemHandler;
+import org.magmafoundation.magma.api.ChangeTrackedContainer;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tells {@code AbstractContainerMenu.broadcastChanges} which slots belong to a {@link ChangeTrackedContainer} that did
+ * not change since the last broadcast, so their comparison can be skipped.
+ * <p>
+ * Every slot is still compared on the first broadcast, after {@link #invalidate()} and every
+ * {@value #FULL_SCAN_INTERVAL} broadcasts.
+ */
+public final class MenuChangeTracker {
+
+    private static final int FULL_SCAN_INTERVAL = 20;
+    private static final ChangeTrackedContainer[] NO_SOURCES = new ChangeTrackedContainer[0];
+
+    private int slotCount = -1;
+    private int[] sourceBySlot;
+    private ChangeTrackedContainer[] sources = NO_SOURCES;
+    private long[] modificationCounts;
+    private boolean[] changed;
+    private boolean untrackedSlots;
+    private boolean fullScan = true;
+    private int sinceFullScan;
+
+    /**
+     * Compares every slot on the next broadcast, for example once the client reported its own view of the slots.
+     */
+    public void invalidate() {
+        this.fullScan = true;
+    }
+
+    /**
+     * Reads the modification counts for the coming broadcast.
+     *
+     * @param slots the slots of the menu.
+     * @return boolean - true if no slot can have changed, so the slot comparison can be skipped entirely.
+     */
+    public boolean update(List<Slot> slots) {
+        if (slots.size() != this.slotCount) {
+            rebuild(slots);
+        }
+        if (this.sources.length == 0) {
+            return false;
+        }
+
+        boolean full = this.fullScan || ++this.sinceFullScan >= FULL_SCAN_INTERVAL;
+        if (full) {
+            this.fullScan = false;
+            this.sinceFullScan = 0;
+        }
+        boolean anyChanged = false;
+        for (int i = 0; i < this.sources.length; i++) {
+            long count = this.sources[i].getModificationCount();
+            this.changed[i] = full || count != this.modificationCounts[i];
+            this.modificationCounts[i] = count;
+            anyChanged |= this.changed[i];
+        }
+        return !anyChanged && !this.untrackedSlots;
+    }
+
+    /**
+     * @return boolean - true if the slot belongs to a tracked container that did not change, only valid after
+     * {@link #update(List)}.
+     */
+    public boolean isUnchanged(int slot) {
+        if (this.sources.length == 0 || slot >= this.slotCount) {
+            return false;
+        }
+        int source = this.sourceBySlot[slot];
+        return source >= 0 && !this.changed[source];
+    }
+
+    private void rebuild(List<Slot> slots) {
+        Map<ChangeTrackedContainer, Integer> indexBySource = new IdentityHashMap<>();
+        this.slotCount = slots.size();
+        this.sourceBySlot = new int[this.slotCount];
+        this.untrackedSlots = false;
+        for (int i = 0; i < this.slotCount; i++) {
+            ChangeTrackedContainer source = getSource(slots.get(i));
+            if (source == null) {
+                this.sourceBySlot[i] = -1;
+                this.untrackedSlots = true;
+            } else {
+                this.sourceBySlot[i] = indexBySource.computeIfAbsent(source, key -> indexBySource.size());
+            }
+        }
+        this.sources = indexBySource.isEmpty() ? NO_SOURCES : new ChangeTrackedContainer[indexBySource.size()];
+        indexBySource.forEach((source, index) -> this.sources[index] = source);
+        this.modificationCounts = new long[this.sources.length];
+        this.changed = new boolean[this.sources.length];
+        this.fullScan = true;
+    }
+
+    private static ChangeTrackedContainer getSource(Slot slot) {
+        if (slot instanceof ChangeTrackedContainer tracked) {
+            return tracked;
+        }
+        if (slot instanceof SlotItemHandler itemHandlerSlot) {
+            return itemHandlerSlot.getItemHandler() instanceof ChangeTrackedContainer tracked ? tracked : null;
+        }
+        return slot.container instanceof ChangeTrackedContainer tracked ? tracked : null;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.network;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraftforge.fml.util.thread.SidedThreadGroups;
+import org.magmafoundation.magma.configuration.MagmaConfig;
+
+import javax.annotation.Nullable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the session verification and pre-login events of logging in players.
+ * <p>
+ * Each login used to start its own authenticator thread, so a reconnect storm started as many threads as there were
+ * players. The work now goes to a bounded pool with a bounded queue, and optionally a limit of pending logins per
+ * address. Logins that do not fit are refused instead of queued without limit.
+ */
+public final class LoginAuthenticator {
+
+    private static final Map<InetAddress, AtomicInteger> PENDING_BY_ADDRESS = new ConcurrentHashMap<>();
+    private static final LongAdder COMPLETED = new LongAdder();
+    private static final LongAdder REJECTED = new LongAdder();
+    private static final LongAdder WAIT_NANOS = new LongAdder();
+    private static final LongAdder RUN_NANOS = new LongAdder();
+    private static final LongAccumulator MAX_RUN_NANOS = new LongAccumulator(Math::max, 0);
+    private static volatile ThreadPoolExecutor executor;
+
+    private LoginAuthenticator() {
+    }
+
+    /**
+     * Queues the authentication of a login.
+     *
+     * @param address the remote address of the connection.
+     * @param task the authentication work.
+     * @return boolean - false when the login was refused because the queue or the address limit is full.
+     */
+    public static boolean submit(SocketAddress address, Runnable task) {
+        return submit(address, task, null);
+    }
+
+    /**
+     * Queues the authentication of a login.
+     *
+     * @param address the remote address of the connection.
+     * @param task the authentication work.
+     * @param exceptionHandler receives anything the task throws, like the handler of the former per login thread.
+     * @return boolean - false when the login was refused because the queue or the address limit is full.
+     */
+    public static boolean submit(SocketAddress address, Runnable task, @Nullable Thread.UncaughtExceptionHandler exceptionHandler) {
+        InetAddress inetAddress = address instanceof InetSocketAddress ? ((InetSocketAddress) address).getAddress() : null;
+        int perAddress = MagmaConfig.instance.networkLoginAuthPerAddress.getValues();
+        AtomicInteger pending = null;
+        if (perAddress > 0 && inetAddress != null) {
+            pending = PENDING_BY_ADDRESS.computeIfAbsent(inetAddress, key -> new AtomicInteger());
+            if (pending.incrementAndGet() > perAddress) {
+                release(inetAddress, pending);
+                REJECTED.increment();
+                return false;
+            }
+        }
+
+        AtomicInteger counter = pending;
+        long queued = System.nanoTime();
+        try {
+            getExecutor().execute(() -> {
+                long start = System.nanoTime();
+                WAIT_NANOS.add(start - queued);
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    if (exceptionHandler == null) {
+                        throw t;
+                    }
+                    exceptionHandler.uncaughtException(Thread.currentThread(), t);
+                } finally {
+                    long time = System.nanoTime() - start;
+                    RUN_NANOS.add(time);
+                    MAX_RUN_NANOS.accumulate(time);
+                    COMPLETED.increment();
+                    if (counter != null) {
+                        release(inetAddress, counter);
+                    }
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (counter != null) {
+                release(inetAddress, counter);
+            }
+            REJECTED.increment();
+            return false;
+        }
+    }
+
+    private static void release(InetAddress address, AtomicInteger pending) {
+        if (pending.decrementAndGet() <= 0) {
+            PENDING_BY_ADDRESS.remove(address, pending);
+        }
+    }
+
+    private static ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor pool = executor;
+        if (pool == null) {
+            synchronized (LoginAuthenticator.class) {
+                pool = executor;
+                if (pool == null) {
+                    int threads = Math.max(1, MagmaConfig.instance.networkLoginAuthThreads.getValues());
+                    int queue = Math.max(1, MagmaConfig.instance.networkLoginAuthQueue.getValues());
+                    pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queue),
+                        new ThreadFactoryBuilder().setNameFormat("User Authenticator #%d").setDaemon(true).setThreadFactory(SidedThreadGroups.SERVER).build());
+                    pool.allowCoreThreadTimeOut(true);
+                    executor = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    public static int getQueueDepth() {
+        ThreadPoolExecutor pool = executor;
+        return pool == null ? 0 : pool.getQueue().size();
+    }
+
+    public static int getActiveCount() {
+        ThreadPoolExecutor pool = executor;
+        return pool == null ? 0 : pool.getActiveCount();
+    }
+
+    public static long getCompleted() {
+        return COMPLETED.sum();
+    }
+
+    public static long getRejected() {
+        return REJECTED.sum();
+    }
+
+    public static double getAverageWaitMillis() {
+        long completed = COMPLETED.sum();
+        return completed == 0 ? 0 : WAIT_NANOS.sum() / 1_000_000.0 / completed;
+    }
+
+    public static double getAverageRunMillis() {
+        long completed = COMPLETED.sum();
+        return completed == 0 ? 0 : RUN_NANOS.sum() / 1_000_000.0 / completed;
+    }
+
+    public static double getMaxRunMillis() {
+        return MAX_RUN_NANOS.get() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.network;
+
+import com.google.gson.Gson;
+import com.mojang.serialization.JsonOps;
+import net.minecraft.network.protocol.status.ClientboundStatusResponsePacket;
+import net.minecraft.network.protocol.status.ServerStatus;
+import org.bukkit.craftbukkit.util.CraftIconCache;
+import org.magmafoundation.magma.configuration.MagmaConfig;
+
+import javax.annotation.Nullable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short lived cache of the server list ping response, and a per address limit of status requests.
+ * <p>
+ * A response stays valid for {@code network.status.cache-millis} while the MOTD, player counts and icon returned by the
+ * {@link org.bukkit.event.server.ServerListPingEvent} are unchanged, which skips building the player sample, the
+ * status and its JSON. With {@code network.status.event-on-refresh-only} the event itself is only fired when the cached
+ * response has expired.
+ */
+public final class StatusPingCache {
+
+    private static final Gson GSON = new Gson();
+    private static final int MAX_TRACKED_ADDRESSES = 4096;
+    private static final Map<InetAddress, RequestWindow> REQUESTS = new ConcurrentHashMap<>();
+    @Nullable
+    private static volatile CachedResponse cached;
+
+    private StatusPingCache() {
+    }
+
+    /**
+     * @return boolean - false if the address sent more status requests within the last second than allowed.
+     */
+    public static boolean allowRequest(SocketAddress address) {
+        int limit = MagmaConfig.instance.networkStatusRateLimit.getValues();
+        if (limit <= 0 || !(address instanceof InetSocketAddress)) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (REQUESTS.size() > MAX_TRACKED_ADDRESSES) {
+            REQUESTS.values().removeIf(window -> window.isExpired(now));
+        }
+        RequestWindow window = REQUESTS.computeIfAbsent(((InetSocketAddress) address).getAddress(), key -> new RequestWindow());
+        return window.tryAcquire(now, limit);
+    }
+
+    /**
+     * The cached response when the ping event is only fired on refresh.
+     *
+     * @return ClientboundStatusResponsePacket - the cached response, or null if the event has to be fired.
+     */
+    @Nullable
+    public static ClientboundStatusResponsePacket getWithoutEvent() {
+        if (!MagmaConfig.instance.networkStatusEventOnRefreshOnly.getValues()) {
+            return null;
+        }
+        CachedResponse response = cached;
+        return response != null && !response.isExpired(System.currentTimeMillis()) ? response.packet : null;
+    }
+
+    /**
+     * The cached response if it was built for the same ping event output.
+     *
+     * @return ClientboundStatusResponsePacket - the cached response, or null if it has to be rebuilt.
+     */
+    @Nullable
+    public static ClientboundStatusResponsePacket get(String motd, int maxPlayers, int onlinePlayers, CraftIconCache icon) {
+        CachedResponse response = cached;
+        if (response == null || response.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return response.matches(motd, maxPlayers, onlinePlayers, icon) ? response.packet : null;
+    }
+
+    /**
+     * Caches a freshly built status.
+     *
+     * @return ClientboundStatusResponsePacket - the response to send, with its JSON already encoded.
+     */
+    public static ClientboundStatusResponsePacket store(String motd, int maxPlayers, int onlinePlayers, CraftIconCache icon, ServerStatus status) {
+        int cacheMillis = MagmaConfig.instance.networkStatusCacheMillis.getValues();
+        if (cacheMillis <= 0) {
+            cached = null;
+            return new ClientboundStatusResponsePacket(status);
+        }
+        String json = GSON.toJson(ServerStatus.CODEC.encodeStart(JsonOps.INSTANCE, status).result().orElseThrow());
+        ClientboundStatusResponsePacket packet = new ClientboundStatusResponsePacket(status, json);
+        cached = new CachedResponse(System.currentTimeMillis() + cacheMillis, motd, maxPlayers, onlinePlayers, icon, packet);
+        return packet;
+    }
+
+    private record CachedResponse(long expires, String motd, int maxPlayers, int onlinePlayers, CraftIconCache icon, ClientboundStatusResponsePacket packet) {
+
+        boolean isExpired(long now) {
+            return now >= this.expires;
+        }
+
+        boolean matches(String motd, int maxPlayers, int onlinePlayers, CraftIconCache icon) {
+            return this.maxPlayers == maxPlayers && this.onlinePlayers == onlinePlayers && this.icon == icon && Objects.equals(this.motd, motd);
+        }
+    }
+
+    private static final class RequestWindow {
+
+        private long start;
+        private int count;
+
+        synchronized boolean tryAcquire(long now, int limit) {
+            if (now - this.start >= 1000L) {
+                this.start = now;
+                this.count = 0;
+            }
+            return ++this.count <= limit;
+        }
+
+        synchronized boolean isExpired(long now) {
+            return now - this.start >= 1000L;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.plugin;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraftforge.fml.util.thread.SidedThreadGroups;
+import org.bukkit.Bukkit;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+import org.magmafoundation.magma.configuration.MagmaConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Runs the calls of {@link DeferredRegisteredListener}s on worker threads.
+ * <p>
+ * Every worker is a single thread with its own bounded queue, and a listener is always assigned to the same worker,
+ * so its handlers never run concurrently with each other and see events in the order they were fired. When a queue is
+ * full the call is handled by the {@code events.deferred.overflow} policy: {@code drop-newest} drops the call,
+ * {@code drop-oldest} drops the oldest queued call of that worker instead, and {@code caller-runs} runs it on the
+ * thread that fired the event. Without worker threads the calls run on the firing thread.
+ * <p>
+ * Before a plugin is disabled its queued calls are given {@value #DRAIN_TIMEOUT_SECONDS} seconds to finish, so none of
+ * them runs during or after onDisable. The workers are shut down when the plugins are cleared.
+ */
+public final class DeferredEventDispatcher {
+
+    private static final int DRAIN_TIMEOUT_SECONDS = 5;
+
+    private static final LongAdder SUBMITTED = new LongAdder();
+    private static final LongAdder COMPLETED = new LongAdder();
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final LongAdder RAN_INLINE = new LongAdder();
+    private static final LongAdder WAIT_NANOS = new LongAdder();
+    private static final LongAdder RUN_NANOS = new LongAdder();
+    private static final LongAccumulator MAX_RUN_NANOS = new LongAccumulator(Math::max, 0);
+    private static volatile ThreadPoolExecutor[] workers;
+
+    private DeferredEventDispatcher() {
+    }
+
+    /**
+     * Queues a call of the listener with the snapshot of an event.
+     *
+     * @param registration the deferred listener.
+     * @param value the snapshot, taken after every synchronous listener has seen the event.
+     */
+    static <T> void submit(DeferredRegisteredListener<?, T> registration, T value) {
+        SUBMITTED.increment();
+        if (!registration.begin()) {
+            DROPPED.increment();
+            return;
+        }
+        DeferredCall<T> call = new DeferredCall<>(registration, value, System.nanoTime());
+        ThreadPoolExecutor[] pool = getWorkers();
+        if (pool.length == 0) {
+            RAN_INLINE.increment();
+            call.run();
+            return;
+        }
+
+        ThreadPoolExecutor worker = pool[Math.floorMod(System.identityHashCode(registration), pool.length)];
+        if (tryExecute(worker, call)) {
+            return;
+        }
+        switch (MagmaConfig.instance.eventsDeferredOverflow.getValues().toLowerCase(Locale.ROOT)) {
+            case "caller-runs" -> {
+                RAN_INLINE.increment();
+                call.run();
+            }
+            case "drop-oldest" -> {
+                Runnable oldest = worker.getQueue().poll();
+                if (oldest != null) {
+                    discard(oldest);
+                }
+                if (!tryExecute(worker, call)) {
+                    discard(call);
+                }
+            }
+            default -> discard(call);
+        }
+    }
+
+    /**
+     * Stops queueing calls for the deferred listeners of the plugin and waits for its queued and running calls. Calls
+     * that did not start within the timeout are dropped.
+     *
+     * @param plugin the plugin about to be disabled.
+     */
+    public static void drain(Plugin plugin) {
+        List<DeferredRegisteredListener<?, ?>> registrations = new ArrayList<>();
+        for (RegisteredListener listener : HandlerList.getRegisteredListeners(plugin)) {
+            if (listener instanceof DeferredRegisteredListener<?, ?> deferred) {
+                deferred.close();
+                registrations.add(deferred);
+            }
+        }
+        if (registrations.isEmpty()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        for (DeferredRegisteredListener<?, ?> registration : registrations) {
+            while (registration.getPending() > 0 && System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+
+        ThreadPoolExecutor[] pool = workers;
+        if (pool != null) {
+            for (ThreadPoolExecutor worker : pool) {
+                BlockingQueue<Runnable> queue = worker.getQueue();
+                for (Runnable task : queue) {
+                    if (task instanceof DeferredCall<?> call && call.registration.getPlugin() == plugin && queue.remove(task)) {
+                        discard(task);
+                    }
+                }
+            }
+        }
+        for (DeferredRegisteredListener<?, ?> registration : registrations) {
+            if (registration.getPending() > 0) {
+                Bukkit.getLogger().warning("Deferred event handlers of " + plugin.getDescription().getFullName() + " did not finish within " + DRAIN_TIMEOUT_SECONDS + " seconds, disabling it anyway");
+                break;
+            }
+        }
+    }
+
+    /**
+     * Shuts the workers down once every plugin is disabled. They are started again by the next deferred call.
+     */
+    public static void shutdown() {
+        ThreadPoolExecutor[] pool;
+        synchronized (DeferredEventDispatcher.class) {
+            pool = workers;
+            workers = null;
+        }
+        if (pool == null) {
+            return;
+        }
+
+        for (ThreadPoolExecutor worker : pool) {
+            worker.shutdown();
+        }
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+            for (ThreadPoolExecutor worker : pool) {
+                worker.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (ThreadPoolExecutor worker : pool) {
+            for (Runnable task : worker.shutdownNow()) {
+                discard(task);
+            }
+        }
+    }
+
+    private static boolean tryExecute(ThreadPoolExecutor worker, Runnable task) {
+        try {
+            worker.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private static void discard(Runnable task) {
+        DROPPED.increment();
+        if (task instanceof DeferredCall<?> call) {
+            call.registration.finish();
+        }
+    }
+
+    private static ThreadPoolExecutor[] getWorkers() {
+        ThreadPoolExecutor[] pool = workers;
+        if (pool == null) {
+            synchronized (DeferredEventDispatcher.class) {
+                pool = workers;
+                if (pool == null) {
+                    int threads = Math.max(0, MagmaConfig.instance.eventsDeferredThreads.getValues());
+                    int queue = Math.max(1, MagmaConfig.instance.eventsDeferredQueue.getValues());
+                    ThreadFactory factory = new ThreadFactoryBuilder().setNameFormat("Magma Event Worker #%d").setDaemon(true).setThreadFactory(SidedThreadGroups.SERVER).build();
+                    pool = new ThreadPoolExecutor[threads];
+                    for (int i = 0; i < threads; i++) {
+                        pool[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue), factory);
+                    }
+                    workers = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    public static int getQueueDepth() {
+        ThreadPoolExecutor[] pool = workers;
+        int depth = 0;
+        if (pool != null) {
+            for (ThreadPoolExecutor worker : pool) {
+                depth += worker.getQueue().size();
+            }
+        }
+        return depth;
+    }
+
+    public static long getSubmitted() {
+        return SUBMITTED.sum();
+    }
+
+    public static long getCompleted() {
+        return COMPLETED.sum();
+    }
+
+    public static long getDropped() {
+        return DROPPED.sum();
+    }
+
+    public static long getRanInline() {
+        return RAN_INLINE.sum();
+    }
+
+    public static double getAverageWaitMillis() {
+        long completed = COMPLETED.sum();
+        return completed == 0 ? 0 : WAIT_NANOS.sum() / 1_000_000.0 / completed;
+    }
+
+    public static double getAverageRunMillis() {
+        long completed = COMPLETED.sum();
+        return completed == 0 ? 0 : RUN_NANOS.sum() / 1_000_000.0 / completed;
+    }
+
+    public static double getMaxRunMillis() {
+        return MAX_RUN_NANOS.get() / 1_000_000.0;
+    }
+
+    private static final class DeferredCall<T> implements Runnable {
+
+        private final DeferredRegisteredListener<?, T> registration;
+        private final T value;
+        private final long queued;
+
+        private DeferredCall(DeferredRegisteredListener<?, T> registration, T value, long queued) {
+            this.registration = registration;
+            this.value = value;
+            this.queued = queued;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            WAIT_NANOS.add(start - this.queued);
+            try {
+                // The plugin may have been disabled without going through the plugin manager
+                if (this.registration.getPlugin().isEnabled()) {
+                    this.registration.handle(this.value);
+                }
+            } catch (Throwable t) {
+                Bukkit.getLogger().log(Level.SEVERE, "Could not pass deferred event to " + this.registration.getPlugin().getDescription().getFullName(), t);
+            } finally {
+                long time = System.nanoTime() - start;
+                RUN_NANOS.add(time);
+                MAX_RUN_NANOS.accumulate(time);
+                COMPLETED.increment();
+                this.registration.finish();
+            }
+        }
+    }
+}
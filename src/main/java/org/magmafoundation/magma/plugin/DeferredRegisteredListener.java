@@ -0,0 +1,115 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.plugin;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * A listener registered through {@link org.magmafoundation.magma.api.DeferredEvents}.
+ * <p>
+ * The plugin manager calls it once every other listener has seen the event. It then takes the snapshot of the event
+ * on the firing thread and hands only that snapshot to {@link DeferredEventDispatcher}.
+ */
+public class DeferredRegisteredListener<E extends Event, T> extends RegisteredListener {
+
+    // Never used, callEvent does not go through the executor
+    private static final EventExecutor NO_EXECUTOR = (listener, event) -> {
+    };
+
+    private final Class<E> eventClass;
+    private final Function<? super E, ? extends T> snapshot;
+    private final Consumer<? super T> handler;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean closed;
+
+    public DeferredRegisteredListener(@NotNull Listener listener, @NotNull EventPriority priority, @NotNull Plugin plugin, boolean ignoreCancelled, @NotNull Class<E> eventClass, @NotNull Function<? super E, ? extends T> snapshot, @NotNull Consumer<? super T> handler) {
+        super(listener, NO_EXECUTOR, priority, plugin, ignoreCancelled);
+        this.eventClass = eventClass;
+        this.snapshot = snapshot;
+        this.handler = handler;
+    }
+
+    @Override
+    public void callEvent(@NotNull Event event) {
+        if (this.closed || !this.eventClass.isInstance(event)) {
+            return;
+        }
+        if (event instanceof Cancellable && ((Cancellable) event).isCancelled() && isIgnoringCancelled()) {
+            return;
+        }
+
+        T value;
+        try {
+            value = this.snapshot.apply(this.eventClass.cast(event));
+        } catch (Throwable t) {
+            getPlugin().getLogger().log(Level.SEVERE, "Could not take a snapshot of event " + event.getEventName() + " for a deferred handler", t);
+            return;
+        }
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Event) {
+            getPlugin().getLogger().severe("The snapshot of event " + event.getEventName() + " for a deferred handler is an event itself, it is not passed on");
+            return;
+        }
+        DeferredEventDispatcher.submit(this, value);
+    }
+
+    void handle(T value) {
+        this.handler.accept(value);
+    }
+
+    /**
+     * Counts a call as pending until {@link #finish()}.
+     *
+     * @return boolean - false if the listener was closed, the call must not run then.
+     */
+    boolean begin() {
+        this.pending.incrementAndGet();
+        if (this.closed) {
+            finish();
+            return false;
+        }
+        return true;
+    }
+
+    void finish() {
+        this.pending.decrementAndGet();
+    }
+
+    int getPending() {
+        return this.pending.get();
+    }
+
+    void close() {
+        this.closed = true;
+    }
+}
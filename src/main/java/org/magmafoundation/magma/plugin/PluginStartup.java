@@ -0,0 +1,181 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.plugin;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Plugin load and enable timings, and the opt-in parallel {@link Plugin#onLoad()} phase.
+ * <p>
+ * Plugins are grouped into waves from their depend, softdepend and loadbefore entries, every plugin only depends on
+ * plugins of earlier waves. Within a wave the plugins declaring {@code parallel-load: true} run on worker threads while
+ * the others run on the main thread, and the next wave only starts once the whole wave has finished.
+ */
+public final class PluginStartup {
+
+    private static final Map<String, Long> LOAD_TIMES = new ConcurrentHashMap<>();
+    private static final Map<String, Long> ENABLE_TIMES = new ConcurrentHashMap<>();
+
+    private PluginStartup() {
+    }
+
+    public static void load(Plugin[] plugins, Consumer<Plugin> loader, boolean parallel, Logger logger) {
+        if (!parallel) {
+            for (Plugin plugin : plugins) {
+                timeLoad(plugin, loader);
+            }
+            return;
+        }
+
+        List<List<Plugin>> waves = buildWaves(plugins);
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), plugins.length));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("Magma Plugin Loader #%d").setDaemon(true).build());
+        try {
+            for (List<Plugin> wave : waves) {
+                List<CompletableFuture<Void>> pending = new ArrayList<>();
+                for (Plugin plugin : wave) {
+                    if (plugin.getDescription().isParallelLoad()) {
+                        pending.add(CompletableFuture.runAsync(() -> {
+                            Thread thread = Thread.currentThread();
+                            ClassLoader previous = thread.getContextClassLoader();
+                            thread.setContextClassLoader(plugin.getClass().getClassLoader());
+                            try {
+                                timeLoad(plugin, loader);
+                            } finally {
+                                thread.setContextClassLoader(previous);
+                            }
+                        }, executor));
+                    }
+                }
+                for (Plugin plugin : wave) {
+                    if (!plugin.getDescription().isParallelLoad()) {
+                        timeLoad(plugin, loader);
+                    }
+                }
+                awaitWave(CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])), logger);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static void enable(Plugin plugin, Consumer<Plugin> enabler) {
+        long start = System.nanoTime();
+        try {
+            enabler.accept(plugin);
+        } finally {
+            ENABLE_TIMES.put(plugin.getName(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Logs the slowest plugins to load and enable.
+     */
+    public static void report(Logger logger, int count) {
+        logTimes(logger, "load", LOAD_TIMES, count);
+        logTimes(logger, "enable", ENABLE_TIMES, count);
+    }
+
+    public static Map<String, Long> getLoadTimes() {
+        return LOAD_TIMES;
+    }
+
+    public static Map<String, Long> getEnableTimes() {
+        return ENABLE_TIMES;
+    }
+
+    private static void timeLoad(Plugin plugin, Consumer<Plugin> loader) {
+        long start = System.nanoTime();
+        try {
+            loader.accept(plugin);
+        } finally {
+            LOAD_TIMES.put(plugin.getName(), System.nanoTime() - start);
+        }
+    }
+
+    private static void awaitWave(CompletableFuture<Void> wave, Logger logger) {
+        try {
+            wave.join();
+        } catch (Throwable t) {
+            logger.log(Level.SEVERE, "Error while loading plugins in parallel", t);
+        }
+    }
+
+    private static List<List<Plugin>> buildWaves(Plugin[] plugins) {
+        Map<String, Integer> indexByName = new HashMap<>();
+        for (int i = 0; i < plugins.length; i++) {
+            PluginDescriptionFile description = plugins[i].getDescription();
+            indexByName.put(description.getName(), i);
+            for (String provided : description.getProvides()) {
+                indexByName.putIfAbsent(provided, i);
+            }
+        }
+
+        int[] wave = new int[plugins.length];
+        List<List<Plugin>> waves = new ArrayList<>();
+        for (int i = 0; i < plugins.length; i++) {
+            PluginDescriptionFile description = plugins[i].getDescription();
+            int level = 0;
+            // The plugin manager already returns plugins in dependency order, so every dependency has a lower index
+            for (int j = 0; j < i; j++) {
+                if (dependsOn(description, plugins[j].getDescription(), indexByName, j)) {
+                    level = Math.max(level, wave[j] + 1);
+                }
+            }
+            wave[i] = level;
+            while (waves.size() <= level) {
+                waves.add(new ArrayList<>());
+            }
+            waves.get(level).add(plugins[i]);
+        }
+        return waves;
+    }
+
+    private static boolean dependsOn(PluginDescriptionFile plugin, PluginDescriptionFile other, Map<String, Integer> indexByName, int otherIndex) {
+        for (String name : plugin.getDepend()) {
+            if (indexByName.getOrDefault(name, -1) == otherIndex) return true;
+        }
+        for (String name : plugin.getSoftDepend()) {
+            if (indexByName.getOrDefault(name, -1) == otherIndex) return true;
+        }
+        return other.getLoadBefore().contains(plugin.getName());
+    }
+
+    private static void logTimes(Logger logger, String phase, Map<String, Long> times, int count) {
+        times.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(count)
+            .forEach(entry -> logger.info(String.format("Plugin %s took %.1f ms to %s", entry.getKey(), entry.getValue() / 1_000_000.0, phase)));
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.profiler;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraftforge.server.timings.TimeTracker;
+import org.bukkit.Bukkit;
+import org.magmafoundation.magma.ticking.BlockEntityTickThrottler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single instrumentation point for block entity ticking. Each tick is timed once and the result is fed to the Forge
+ * {@link TimeTracker}, the Spigot timings handler of the block entity, the {@link BlockEntityTickThrottler} and, while a
+ * profile is running, to per type, per chunk and per position statistics.
+ */
+public final class BlockEntityTickProfiler {
+
+    private static final Map<BlockEntityType<?>, TickHistogram> TYPES = new IdentityHashMap<>();
+    private static final Map<ResourceKey<Level>, LevelData> LEVELS = new IdentityHashMap<>();
+
+    private static volatile boolean running;
+    private static long stopAt;
+
+    private BlockEntityTickProfiler() {
+    }
+
+    /**
+     * Starts collecting data, clearing the results of the previous run.
+     *
+     * @param seconds duration of the profile, or {@code 0} to run until {@link #stop()} is called
+     */
+    public static void start(int seconds) {
+        reset();
+        stopAt = seconds > 0 ? System.nanoTime() + seconds * 1_000_000_000L : 0;
+        running = true;
+    }
+
+    public static void stop() {
+        running = false;
+    }
+
+    public static void reset() {
+        TYPES.clear();
+        LEVELS.clear();
+    }
+
+    public static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Called before a block entity ticks.
+     *
+     * @return the start timestamp to pass to {@link #endTick(BlockEntity, long)}, or {@code 0} if nothing is listening
+     */
+    public static long beginTick() {
+        if (running || BlockEntityTickThrottler.isEnabled() || TimeTracker.BLOCK_ENTITY_UPDATE.isEnabled() || Bukkit.getPluginManager().useTimings()) {
+            return System.nanoTime();
+        }
+        return 0L;
+    }
+
+    public static void endTick(BlockEntity blockEntity, long start) {
+        if (start == 0L) {
+            return;
+        }
+        long end = System.nanoTime();
+        long duration = end - start;
+        TimeTracker.BLOCK_ENTITY_UPDATE.track(blockEntity, start, end);
+        blockEntity.tickTimer.addTiming(duration);
+        BlockEntityTickThrottler.record(blockEntity.getType(), duration);
+        if (running) {
+            if (stopAt != 0L && end - stopAt > 0) {
+                running = false;
+                return;
+            }
+            record(blockEntity, duration);
+        }
+    }
+
+    private static void record(BlockEntity blockEntity, long duration) {
+        Level level = blockEntity.getLevel();
+        if (level == null) {
+            return;
+        }
+        BlockEntityType<?> type = blockEntity.getType();
+        TYPES.computeIfAbsent(type, t -> new TickHistogram()).record(duration);
+
+        BlockPos pos = blockEntity.getBlockPos();
+        LevelData data = LEVELS.computeIfAbsent(level.dimension(), LevelData::new);
+        long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        TickHistogram chunk = data.chunks.get(chunkKey);
+        if (chunk == null) {
+            data.chunks.put(chunkKey, chunk = new TickHistogram());
+        }
+        chunk.record(duration);
+
+        long posKey = pos.asLong();
+        Sample sample = data.positions.get(posKey);
+        if (sample == null || sample.type != type) {
+            data.positions.put(posKey, sample = new Sample(data.dimension, pos.immutable(), type));
+        }
+        sample.record(duration);
+    }
+
+    /**
+     * @return a copy of the per type histograms collected by the current or last profile
+     */
+    public static Map<BlockEntityType<?>, TickHistogram> getTypeTimings() {
+        return new IdentityHashMap<>(TYPES);
+    }
+
+    /**
+     * @return a copy of the per chunk histograms of the given level, keyed by {@link ChunkPos#toLong()}
+     */
+    public static Long2ObjectMap<TickHistogram> getChunkTimings(ResourceKey<Level> dimension) {
+        LevelData data = LEVELS.get(dimension);
+        return data == null ? new Long2ObjectOpenHashMap<>() : new Long2ObjectOpenHashMap<>(data.chunks);
+    }
+
+    /**
+     * @return the block entities with the highest total tick time, most expensive first
+     */
+    public static List<Sample> getTopBlockEntities(int limit) {
+        List<Sample> samples = new ArrayList<>();
+        for (LevelData data : LEVELS.values()) {
+            samples.addAll(data.positions.values());
+        }
+        samples.sort(Comparator.comparingLong(Sample::getTotalNanos).reversed());
+        return samples.size() > limit ? new ArrayList<>(samples.subList(0, limit)) : samples;
+    }
+
+    /**
+     * @return the chunks with the highest total block entity tick time, most expensive first
+     */
+    public static List<ChunkSample> getTopChunks(int limit) {
+        List<ChunkSample> samples = new ArrayList<>();
+        for (LevelData data : LEVELS.values()) {
+            for (Long2ObjectMap.Entry<TickHistogram> entry : data.chunks.long2ObjectEntrySet()) {
+                samples.add(new ChunkSample(data.dimension, new ChunkPos(entry.getLongKey()), entry.getValue()));
+            }
+        }
+        samples.sort(Comparator.comparingLong((ChunkSample sample) -> sample.histogram().getTotalNanos()).reversed());
+        return samples.size() > limit ? new ArrayList<>(samples.subList(0, limit)) : samples;
+    }
+
+    private static final class LevelData {
+
+        private final ResourceKey<Level> dimension;
+        private final Long2ObjectOpenHashMap<TickHistogram> chunks = new Long2ObjectOpenHashMap<>();
+        private final Long2ObjectOpenHashMap<Sample> positions = new Long2ObjectOpenHashMap<>();
+
+        private LevelData(ResourceKey<Level> dimension) {
+            this.dimension = dimension;
+        }
+    }
+
+    public record ChunkSample(ResourceKey<Level> dimension, ChunkPos pos, TickHistogram histogram) {
+    }
+
+    /**
+     * Tick statistics of the block entity at a single position.
+     */
+    public static final class Sample {
+
+        private final ResourceKey<Level> dimension;
+        private final BlockPos pos;
+        private final BlockEntityType<?> type;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        private Sample(ResourceKey<Level> dimension, BlockPos pos, BlockEntityType<?> type) {
+            this.dimension = dimension;
+            this.pos = pos;
+            this.type = type;
+        }
+
+        private void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        public ResourceKey<Level> getDimension() {
+            return dimension;
+        }
+
+        public BlockPos getPos() {
+            return pos;
+        }
+
+        public BlockEntityType<?> getType() {
+            return type;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public double getAverageNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+    }
+}
@@ -44,6 +44,7 @@ import org.spongepowered.asm.service.MixinService;
 import java.io.File;
 import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.JarURLConnection;
@@ -259,6 +260,167 @@ public class ClassLoaderRemapper extends LenientJarRemapper {
         } else return method.getName();
     }
 
+    // Caches of the redirected reflection calls. The generated handler is copied per class loader and reaches them
+    // through its remapper field, so they live here instead of in static fields of MagmaReflectionHandler.
+
+    // srg -> bukkit, plugins call the redirected getName family in tight loops
+    private final ClassValue<String> classNames = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> cl) {
+            Type type = Type.getObjectType(toBukkitRemapper.mapType(Type.getInternalName(cl)));
+            return type.getInternalName().replace('/', '.');
+        }
+    };
+    private final ClassValue<String> simpleNames = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> cl) {
+            return computeClassSimpleName(cl);
+        }
+    };
+    private final ClassValue<Optional<String>> canonicalNames = new ClassValue<>() {
+        @Override
+        protected Optional<String> computeValue(Class<?> cl) {
+            return Optional.ofNullable(computeClassCanonicalName(cl));
+        }
+    };
+    private final ClassValue<Map<Member, String>> memberNames = new ClassValue<>() {
+        @Override
+        protected Map<Member, String> computeValue(Class<?> cl) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private final Map<String, String> classNameStrings = new ConcurrentHashMap<>();
+
+    // bukkit -> srg, hit by every redirected getField/getMethod and Lookup.find* call
+    private final ClassValue<Map<String, String>> fieldSrgNames = new ClassValue<>() {
+        @Override
+        protected Map<String, String> computeValue(Class<?> cl) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private final ClassValue<Map<String, String>> declaredFieldSrgNames = new ClassValue<>() {
+        @Override
+        protected Map<String, String> computeValue(Class<?> cl) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private final ClassValue<Map<WrappedMethod, Optional<Method>>> srgMethods = new ClassValue<>() {
+        @Override
+        protected Map<WrappedMethod, Optional<Method>> computeValue(Class<?> cl) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    public String mapClassName(Class<?> cl) {
+        return classNames.get(cl);
+    }
+
+    public String mapClassName(String className) {
+        String name = classNameStrings.get(className);
+        if (name == null) {
+            name = toBukkitRemapper.mapType(className.replace('.', '/')).replace('/', '.');
+            classNameStrings.put(className, name);
+        }
+        return name;
+    }
+
+    public String mapClassSimpleName(Class<?> cl) {
+        return simpleNames.get(cl);
+    }
+
+    public String mapClassCanonicalName(Class<?> cl) {
+        return canonicalNames.get(cl).orElse(null);
+    }
+
+    public String mapFieldName(Field field) {
+        Map<Member, String> names = memberNames.get(field.getDeclaringClass());
+        String name = names.get(field);
+        if (name == null) {
+            name = tryMapFieldToBukkit(field.getDeclaringClass(), field.getName(), field);
+            names.put(field, name);
+        }
+        return name;
+    }
+
+    public String mapMethodName(Method method) {
+        Map<Member, String> names = memberNames.get(method.getDeclaringClass());
+        String name = names.get(method);
+        if (name == null) {
+            name = tryMapMethodToBukkit(method.getDeclaringClass(), method);
+            names.put(method, name);
+        }
+        return name;
+    }
+
+    public String mapFieldToSrg(Class<?> cl, String bukkitName) {
+        Map<String, String> names = fieldSrgNames.get(cl);
+        String name = names.get(bukkitName);
+        if (name == null) {
+            name = tryMapFieldToSrg(cl, bukkitName);
+            names.put(bukkitName, name);
+        }
+        return name;
+    }
+
+    public String mapDecFieldToSrg(Class<?> cl, String bukkitName) {
+        Map<String, String> names = declaredFieldSrgNames.get(cl);
+        String name = names.get(bukkitName);
+        if (name == null) {
+            name = tryMapDecFieldToSrg(cl, bukkitName);
+            names.put(bukkitName, name);
+        }
+        return name;
+    }
+
+    public Method mapMethodToSrg(Class<?> cl, String bukkitName, Class<?>[] pTypes) {
+        Map<WrappedMethod, Optional<Method>> methods = srgMethods.get(cl);
+        Optional<Method> method = methods.get(new WrappedMethod(bukkitName, pTypes));
+        if (method == null) {
+            method = Optional.ofNullable(tryMapMethodToSrg(cl, bukkitName, pTypes));
+            methods.put(new WrappedMethod(bukkitName, pTypes == null ? null : pTypes.clone()), method);
+        }
+        return method.orElse(null);
+    }
+
+    private String computeClassCanonicalName(Class<?> cl) {
+        if (cl.isArray()) {
+            String name = mapClassCanonicalName(cl.getComponentType());
+            if (name == null) return null;
+            return name + "[]";
+        }
+        if (cl.isLocalClass() || cl.isAnonymousClass()) {
+            return null;
+        }
+        String canonicalName = cl.getCanonicalName();
+        if (canonicalName == null) {
+            return null;
+        }
+        Class<?> enclosingClass = cl.getEnclosingClass();
+        if (enclosingClass == null) {
+            return mapClassName(cl);
+        } else {
+            String name = mapClassCanonicalName(enclosingClass);
+            if (name == null) return null;
+            return name + "." + mapClassSimpleName(cl);
+        }
+    }
+
+    private String computeClassSimpleName(Class<?> cl) {
+        String simpleName = cl.getSimpleName();
+        if (simpleName.length() == 0) {
+            return simpleName; // anon class
+        }
+        Class<?> enclosingClass = cl.getEnclosingClass();
+        if (enclosingClass == null) { // simple class / lambdas
+            String mapped = mapClassName(cl);
+            return mapped.substring(mapped.lastIndexOf('.') + 1);
+        } else { // nested class
+            String outer = mapClassName(enclosingClass);
+            String inner = mapClassName(cl);
+            return inner.substring(outer.length() + 1);
+        }
+    }
+
     private boolean shouldRemap(String internalName) {
         Boolean b = cacheRemap.get(internalName);
         if (b != null) return b;
@@ -70,6 +70,14 @@ public class MagmaRedirectAdapter implements PluginTransformer {
     private static final Multimap<String, Product2<String, MethodInsnNode>> METHOD_MODIFY = HashMultimap.create();
     private static final Multimap<String, Product2<String, MethodInsnNode>> METHOD_REDIRECT = HashMultimap.create();
     private static final Map<String, Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]>> METHOD_TO_HANDLER = new ConcurrentHashMap<>();
+    // Per Method lookup cache for runHandle/runRedirect, so Method.invoke does not build a descriptor string per call.
+    // Bridges are registered while their class is scanned, before any Method of it exists, so entries never go stale.
+    private static final ClassValue<Map<Method, Optional<Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]>>>> HANDLER_CACHE = new ClassValue<>() {
+        @Override
+        protected Map<Method, Optional<Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]>>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
 
     static {
         redirect(Field.class, "getName", "fieldGetName");
@@ -121,8 +129,18 @@ public class MagmaRedirectAdapter implements PluginTransformer {
         redirect(java.lang.reflect.Type.class, "getTypeName", "typeGetName");
     }
 
+    private static Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]> handlerOf(Method method) {
+        Map<Method, Optional<Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]>>> cache = HANDLER_CACHE.get(method.getDeclaringClass());
+        Optional<Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]>> handler = cache.get(method);
+        if (handler == null) {
+            handler = Optional.ofNullable(METHOD_TO_HANDLER.get(methodToString(method)));
+            cache.put(method, handler);
+        }
+        return handler.orElse(null);
+    }
+
     public static Object[] runHandle(ClassLoaderRemapper remapper, Method method, Object src, Object[] param) {
-        Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]> handler = METHOD_TO_HANDLER.get(methodToString(method));
+        Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]> handler = handlerOf(method);
         if (handler != null) {
             return handler.apply(remapper, method, src, param);
         }
@@ -130,7 +148,7 @@ public class MagmaRedirectAdapter implements PluginTransformer {
     }
 
     public static Object runRedirect(ClassLoaderRemapper remapper, Method method, Object src, Object[] param) throws Throwable {
-        Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]> handler = METHOD_TO_HANDLER.get(methodToString(method));
+        Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]> handler = handlerOf(method);
         if (handler != null) {
             Object[] ret = handler.apply(remapper, method, src, param);
             return ((Method) ret[0]).invoke(ret[1], (Object[]) ret[2]);
@@ -447,16 +465,18 @@ public class MagmaRedirectAdapter implements PluginTransformer {
 
         private final String handlerName;
         private final Class<?>[] handlerArgs;
+        private final ClassValue<Method> handleMethods;
 
         public ModifyHandler(String handlerName, Class<?>[] handlerArgs) {
             this.handlerName = handlerName;
             this.handlerArgs = handlerArgs;
+            this.handleMethods = new HandlerMethodCache(handlerName, handlerArgs);
         }
 
         @Override
         public Object[] apply4(ClassLoaderRemapper remapper, Method method, Object src, Object[] param) {
             try {
-                Method handleMethod = remapper.getGeneratedHandlerClass().getMethod(handlerName, handlerArgs);
+                Method handleMethod = handleMethods.get(remapper.getGeneratedHandlerClass());
                 if (method.getParameterCount() > 0) {
                     if (handleMethod.getReturnType().isArray() && !Modifier.isStatic(method.getModifiers())) {
                         Object[] invoke = (Object[]) handleMethod.invoke(null, ArrayUtil.prepend(param, src));
@@ -478,16 +498,18 @@ public class MagmaRedirectAdapter implements PluginTransformer {
 
         private final String handlerName;
         private final Class<?>[] handlerArgs;
+        private final ClassValue<Method> redirectMethods;
 
         public RedirectHandler(String handlerName, Class<?>[] handlerArgs) {
             this.handlerName = handlerName;
             this.handlerArgs = handlerArgs;
+            this.redirectMethods = new HandlerMethodCache(handlerName, handlerArgs);
         }
 
         @Override
         public Object[] apply4(ClassLoaderRemapper remapper, Method method, Object src, Object[] param) {
             try {
-                Method redirectMethod = remapper.getGeneratedHandlerClass().getMethod(handlerName, handlerArgs);
+                Method redirectMethod = redirectMethods.get(remapper.getGeneratedHandlerClass());
                 return new Object[]{redirectMethod, null, Modifier.isStatic(method.getModifiers()) ? param : ArrayUtil.prepend(param, src)};
             } catch (Exception e) {
                 Unsafe.throwException(e);
@@ -496,6 +518,27 @@ public class MagmaRedirectAdapter implements PluginTransformer {
         }
     }
 
+    private static class HandlerMethodCache extends ClassValue<Method> {
+
+        private final String handlerName;
+        private final Class<?>[] handlerArgs;
+
+        private HandlerMethodCache(String handlerName, Class<?>[] handlerArgs) {
+            this.handlerName = handlerName;
+            this.handlerArgs = handlerArgs;
+        }
+
+        @Override
+        protected Method computeValue(Class<?> generatedHandler) {
+            try {
+                return generatedHandler.getMethod(handlerName, handlerArgs);
+            } catch (NoSuchMethodException e) {
+                Unsafe.throwException(e);
+                return null;
+            }
+        }
+    }
+
     private static class BridgeHandler implements Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]> {
 
         private final Func4<ClassLoaderRemapper, Method, Object, Object[], Object[]> bridge;
@@ -121,65 +121,32 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // srg -> bukkit
     public static String redirectFieldGetName(Field field) {
-        return remapper.tryMapFieldToBukkit(field.getDeclaringClass(), field.getName(), field);
+        return remapper.mapFieldName(field);
     }
 
     // srg -> bukkit
     public static String redirectMethodGetName(Method method) {
-        return remapper.tryMapMethodToBukkit(method.getDeclaringClass(), method);
+        return remapper.mapMethodName(method);
     }
 
     // srg -> bukkit
     public static String redirectClassGetCanonicalName(Class<?> cl) {
-        if (cl.isArray()) {
-            String name = redirectClassGetCanonicalName(cl.getComponentType());
-            if (name == null) return null;
-            return name + "[]";
-        }
-        if (cl.isLocalClass() || cl.isAnonymousClass()) {
-            return null;
-        }
-        String canonicalName = cl.getCanonicalName();
-        if (canonicalName == null) {
-            return null;
-        }
-        Class<?> enclosingClass = cl.getEnclosingClass();
-        if (enclosingClass == null) {
-            return redirectClassGetName(cl);
-        } else {
-            String name = redirectClassGetCanonicalName(enclosingClass);
-            if (name == null) return null;
-            return name + "." + redirectClassGetSimpleName(cl);
-        }
+        return remapper.mapClassCanonicalName(cl);
     }
 
     // srg -> bukkit
     public static String redirectClassGetSimpleName(Class<?> cl) {
-        String simpleName = cl.getSimpleName();
-        if (simpleName.length() == 0) {
-            return simpleName; // anon class
-        }
-        Class<?> enclosingClass = cl.getEnclosingClass();
-        if (enclosingClass == null) { // simple class / lambdas
-            String mapped = redirectClassGetName(cl);
-            return mapped.substring(mapped.lastIndexOf('.') + 1);
-        } else { // nested class
-            String outer = redirectClassGetName(enclosingClass);
-            String inner = redirectClassGetName(cl);
-            return inner.substring(outer.length() + 1);
-        }
+        return remapper.mapClassSimpleName(cl);
     }
 
     // srg -> bukkit
     public static String handleClassGetName(String cl) {
-        return remapper.toBukkitRemapper().mapType(cl.replace('.', '/')).replace('/', '.');
+        return remapper.mapClassName(cl);
     }
 
     // srg -> bukkit
     public static String redirectClassGetName(Class<?> cl) {
-        String internalName = Type.getInternalName(cl);
-        Type type = Type.getObjectType(remapper.toBukkitRemapper().mapType(internalName));
-        return type.getInternalName().replace('/', '.');
+        return remapper.mapClassName(cl);
     }
 
     // srg -> bukkit
@@ -200,7 +167,7 @@ public class MagmaReflectionHandler extends ClassLoader {
     public static String redirectTypeGetName(java.lang.reflect.Type type) {
         if (type instanceof Class cl) {
             if (cl.isArray()) {
-                return redirectTypeGetName(cl) + "[]";
+                return redirectTypeGetName(cl.getComponentType()) + "[]";
             }
             return redirectClassGetName(cl);
         } else if (type instanceof WildcardType wType) {
@@ -270,12 +237,12 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static Object[] handleClassGetField(Class<?> cl, String bukkitName) {
-        return new Object[]{cl, remapper.tryMapFieldToSrg(cl, bukkitName)};
+        return new Object[]{cl, remapper.mapFieldToSrg(cl, bukkitName)};
     }
 
     // bukkit -> srg
     public static Field redirectClassGetField(Class<?> cl, String bukkitName) throws NoSuchFieldException {
-        String field = remapper.tryMapFieldToSrg(cl, bukkitName);
+        String field = remapper.mapFieldToSrg(cl, bukkitName);
         return cl.getField(field);
     }
 
@@ -286,20 +253,20 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static Field redirectClassGetDeclaredField(Class<?> cl, String bukkitName) throws NoSuchFieldException {
-        String field = remapper.tryMapDecFieldToSrg(cl, bukkitName);
+        String field = remapper.mapDecFieldToSrg(cl, bukkitName);
         return cl.getDeclaredField(field);
     }
 
     // bukkit -> srg
     public static Object[] handleClassGetMethod(Class<?> cl, String bukkitName, Class<?>... pTypes) {
-        Method method = remapper.tryMapMethodToSrg(cl, bukkitName, pTypes);
+        Method method = remapper.mapMethodToSrg(cl, bukkitName, pTypes);
         String methodName = method == null ? bukkitName : method.getName();
         return new Object[]{cl, methodName, pTypes};
     }
 
     // bukkit -> srg
     public static Method redirectClassGetMethod(Class<?> cl, String bukkitName, Class<?>... pTypes) throws NoSuchMethodException {
-        Method method = remapper.tryMapMethodToSrg(cl, bukkitName, pTypes);
+        Method method = remapper.mapMethodToSrg(cl, bukkitName, pTypes);
         if (method != null) {
             return method;
         } else {
@@ -314,7 +281,7 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static Method redirectClassGetDeclaredMethod(Class<?> cl, String bukkitName, Class<?>... pTypes) throws NoSuchMethodException {
-        Method method = remapper.tryMapMethodToSrg(cl, bukkitName, pTypes);
+        Method method = remapper.mapMethodToSrg(cl, bukkitName, pTypes);
         if (method != null) {
             return method;
         } else {
@@ -335,13 +302,13 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static Object[] handleLookupFindStatic(MethodHandles.Lookup lookup, Class<?> cl, String name, MethodType methodType) {
-        Method method = remapper.tryMapMethodToSrg(cl, name, methodType.parameterArray());
+        Method method = remapper.mapMethodToSrg(cl, name, methodType.parameterArray());
         return new Object[]{lookup, cl, method == null ? name : method.getName(), methodType};
     }
 
     // bukkit -> srg
     public static MethodHandle redirectLookupFindStatic(MethodHandles.Lookup lookup, Class<?> cl, String name, MethodType methodType) throws NoSuchMethodException, IllegalAccessException {
-        Method method = remapper.tryMapMethodToSrg(cl, name, methodType.parameterArray());
+        Method method = remapper.mapMethodToSrg(cl, name, methodType.parameterArray());
         if (method != null) {
             return lookup.findStatic(cl, method.getName(), methodType);
         } else {
@@ -356,7 +323,7 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static MethodHandle redirectLookupFindVirtual(MethodHandles.Lookup lookup, Class<?> cl, String name, MethodType methodType) throws NoSuchMethodException, IllegalAccessException {
-        Method method = remapper.tryMapMethodToSrg(cl, name, methodType.parameterArray());
+        Method method = remapper.mapMethodToSrg(cl, name, methodType.parameterArray());
         if (method != null) {
             return lookup.findVirtual(cl, method.getName(), methodType);
         } else {
@@ -366,13 +333,13 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static Object[] handleLookupFindSpecial(MethodHandles.Lookup lookup, Class<?> cl, String name, MethodType methodType, Class<?> spec) {
-        Method method = remapper.tryMapMethodToSrg(cl, name, methodType.parameterArray());
+        Method method = remapper.mapMethodToSrg(cl, name, methodType.parameterArray());
         return new Object[]{lookup, cl, method == null ? name : method.getName(), methodType, spec};
     }
 
     // bukkit -> srg
     public static MethodHandle redirectLookupFindSpecial(MethodHandles.Lookup lookup, Class<?> cl, String name, MethodType methodType, Class<?> spec) throws NoSuchMethodException, IllegalAccessException {
-        Method method = remapper.tryMapMethodToSrg(cl, name, methodType.parameterArray());
+        Method method = remapper.mapMethodToSrg(cl, name, methodType.parameterArray());
         if (method != null) {
             return lookup.findSpecial(cl, method.getName(), methodType, spec);
         } else {
@@ -382,13 +349,13 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static Object[] handleLookupFindGetter(MethodHandles.Lookup lookup, Class<?> cl, String name, Class<?> type) {
-        String field = remapper.tryMapFieldToSrg(cl, name);
+        String field = remapper.mapFieldToSrg(cl, name);
         return new Object[]{lookup, cl, field, type};
     }
 
     // bukkit -> srg
     public static MethodHandle redirectLookupFindGetter(MethodHandles.Lookup lookup, Class<?> cl, String name, Class<?> type) throws IllegalAccessException, NoSuchFieldException {
-        String field = remapper.tryMapFieldToSrg(cl, name);
+        String field = remapper.mapFieldToSrg(cl, name);
         return lookup.findGetter(cl, field, type);
     }
 
@@ -399,7 +366,7 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static MethodHandle redirectLookupFindSetter(MethodHandles.Lookup lookup, Class<?> cl, String name, Class<?> type) throws IllegalAccessException, NoSuchFieldException {
-        String field = remapper.tryMapFieldToSrg(cl, name);
+        String field = remapper.mapFieldToSrg(cl, name);
         return lookup.findSetter(cl, field, type);
     }
 
@@ -410,7 +377,7 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static MethodHandle redirectLookupFindStaticGetter(MethodHandles.Lookup lookup, Class<?> cl, String name, Class<?> type) throws IllegalAccessException, NoSuchFieldException {
-        String field = remapper.tryMapFieldToSrg(cl, name);
+        String field = remapper.mapFieldToSrg(cl, name);
         return lookup.findStaticGetter(cl, field, type);
     }
 
@@ -421,7 +388,7 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static MethodHandle redirectLookupFindStaticSetter(MethodHandles.Lookup lookup, Class<?> cl, String name, Class<?> type) throws IllegalAccessException, NoSuchFieldException {
-        String field = remapper.tryMapFieldToSrg(cl, name);
+        String field = remapper.mapFieldToSrg(cl, name);
         return lookup.findStaticSetter(cl, field, type);
     }
 
@@ -437,7 +404,7 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static VarHandle redirectLookupFindVarHandle(MethodHandles.Lookup lookup, Class<?> cl, String name, Class<?> type) throws NoSuchFieldException, IllegalAccessException {
-        String field = remapper.tryMapFieldToSrg(cl, name);
+        String field = remapper.mapFieldToSrg(cl, name);
         return lookup.findVarHandle(cl, field, type);
     }
 
@@ -448,7 +415,7 @@ public class MagmaReflectionHandler extends ClassLoader {
 
     // bukkit -> srg
     public static VarHandle redirectLookupFindStaticVarHandle(MethodHandles.Lookup lookup, Class<?> cl, String name, Class<?> type) throws NoSuchFieldException, IllegalAccessException {
-        String field = remapper.tryMapFieldToSrg(cl, name);
+        String field = remapper.mapFieldToSrg(cl, name);
         return lookup.findStaticVarHandle(cl, field, type);
     }
 
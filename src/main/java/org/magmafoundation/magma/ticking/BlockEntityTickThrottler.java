@@ -0,0 +1,186 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.ticking;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraftforge.registries.ForgeRegistries;
+import org.magmafoundation.magma.configuration.MagmaConfig;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Staggers the ticks of expensive block entity types across several server ticks. The average tick cost of every type
+ * is measured through {@link org.magmafoundation.magma.profiler.BlockEntityTickProfiler}, types whose average exceeds
+ * the configured budget only tick every {@code n} ticks, offset by their position so the load is spread evenly.
+ */
+public final class BlockEntityTickThrottler {
+
+    private static final double SMOOTHING = 0.05D;
+
+    private static final boolean ENABLED = MagmaConfig.instance.blockEntityThrottleEnabled.getValues();
+    private static final long BUDGET_NANOS = Math.max(1, MagmaConfig.instance.blockEntityThrottleBudget.getValues()) * 1000L;
+    private static final int MAX_INTERVAL = Math.max(1, MagmaConfig.instance.blockEntityThrottleMaxInterval.getValues());
+
+    private static final Map<BlockEntityType<?>, TypeState> TYPES = new IdentityHashMap<>();
+    private static final Object2LongOpenHashMap<ResourceKey<Level>> SKIPPED = new Object2LongOpenHashMap<>();
+
+    private BlockEntityTickThrottler() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @return false if the tick of this block entity should be deferred to a later server tick
+     */
+    public static boolean shouldTick(BlockEntity blockEntity) {
+        if (!ENABLED) {
+            return true;
+        }
+        TypeState state = getState(blockEntity.getType());
+        if (state.interval <= 1) {
+            return true;
+        }
+        Level level = blockEntity.getLevel();
+        long offset = Long.hashCode(blockEntity.getBlockPos().asLong());
+        if (level == null || Math.floorMod(level.getGameTime() + offset, state.interval) == 0) {
+            return true;
+        }
+        state.deferred++;
+        return false;
+    }
+
+    /**
+     * Feeds a measured tick duration into the running average of the block entity's type.
+     */
+    public static void record(BlockEntityType<?> type, long nanos) {
+        if (!ENABLED) {
+            return;
+        }
+        TypeState state = getState(type);
+        state.ticked++;
+        state.averageNanos += (nanos - state.averageNanos) * SMOOTHING;
+        if (!state.exempt) {
+            state.interval = (int) Math.min(MAX_INTERVAL, Math.max(1, Math.ceil(state.averageNanos / BUDGET_NANOS)));
+        }
+    }
+
+    /**
+     * Records block entities that were not reached in a tick because the Spigot tile limiter ran out of time.
+     */
+    public static void recordSkipped(Level level, int skipped) {
+        if (skipped > 0) {
+            SKIPPED.addTo(level.dimension(), skipped);
+        }
+    }
+
+    /**
+     * @return a copy of the per type throttling state
+     */
+    public static Map<BlockEntityType<?>, TypeState> getTypeStates() {
+        Map<BlockEntityType<?>, TypeState> copy = new IdentityHashMap<>();
+        TYPES.forEach((type, state) -> copy.put(type, state.copy()));
+        return copy;
+    }
+
+    /**
+     * @return the number of block entity ticks dropped by the tile limiter, per dimension
+     */
+    public static Object2LongMap<ResourceKey<Level>> getSkippedTicks() {
+        return new Object2LongOpenHashMap<>(SKIPPED);
+    }
+
+    public static void resetCounters() {
+        SKIPPED.clear();
+        for (TypeState state : TYPES.values()) {
+            state.ticked = 0;
+            state.deferred = 0;
+        }
+    }
+
+    private static TypeState getState(BlockEntityType<?> type) {
+        TypeState state = TYPES.get(type);
+        if (state == null) {
+            TYPES.put(type, state = new TypeState(isExempt(type)));
+        }
+        return state;
+    }
+
+    private static boolean isExempt(BlockEntityType<?> type) {
+        ResourceLocation key = ForgeRegistries.BLOCK_ENTITY_TYPES.getKey(type);
+        if (key == null) {
+            return true;
+        }
+        return MagmaConfig.instance.blockEntityThrottleExempt.contains(key.toString())
+            || MagmaConfig.instance.blockEntityThrottleExempt.contains(key.getNamespace() + ":*");
+    }
+
+    public static final class TypeState {
+
+        private final boolean exempt;
+        private double averageNanos;
+        private int interval = 1;
+        private long ticked;
+        private long deferred;
+
+        private TypeState(boolean exempt) {
+            this.exempt = exempt;
+        }
+
+        private TypeState copy() {
+            TypeState copy = new TypeState(exempt);
+            copy.averageNanos = averageNanos;
+            copy.interval = interval;
+            copy.ticked = ticked;
+            copy.deferred = deferred;
+            return copy;
+        }
+
+        public boolean isExempt() {
+            return exempt;
+        }
+
+        public double getAverageNanos() {
+            return averageNanos;
+        }
+
+        /**
+         * @return the number of server ticks between two ticks of a block entity of this type
+         */
+        public int getInterval() {
+            return interval;
+        }
+
+        public long getTicked() {
+            return ticked;
+        }
+
+        public long getDeferred() {
+            return deferred;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.world;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.Clearable;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spigotmc.AsyncCatcher;
+
+import javax.annotation.Nullable;
+
+/**
+ * A compact list of block changes, stored as packed positions and block state ids.
+ * <p>
+ * Changes are written straight into the chunk with {@link LevelChunk#setBlockState}, which keeps the section
+ * palettes, heightmaps, light queue and block entities consistent without the capture, snapshot, event and per block
+ * packet work of {@code Level.setBlock}. Client updates go through {@code ServerChunkCache.blockChanged} so they are
+ * coalesced into one section update per section on the next broadcast, and neighbour updates are sent once per
+ * changed position after every change has been written.
+ */
+public final class BlockEditBuffer {
+
+    private final LongArrayList positions = new LongArrayList();
+    private final IntArrayList states = new IntArrayList();
+    // Indexed like the changes, a position changed twice keeps the block entity data of each change
+    private final ObjectArrayList<CompoundTag> blockEntityTags = new ObjectArrayList<>();
+
+    public void add(int x, int y, int z, BlockState state) {
+        this.positions.add(BlockPos.asLong(x, y, z));
+        this.states.add(Block.getId(state));
+        this.blockEntityTags.add(null);
+    }
+
+    private void add(long pos, BlockState state, @Nullable CompoundTag blockEntityTag) {
+        this.positions.add(pos);
+        this.states.add(Block.getId(state));
+        this.blockEntityTags.add(blockEntityTag);
+    }
+
+    public int size() {
+        return this.positions.size();
+    }
+
+    public boolean isEmpty() {
+        return this.positions.isEmpty();
+    }
+
+    public void clear() {
+        this.positions.clear();
+        this.states.clear();
+        this.blockEntityTags.clear();
+    }
+
+    /**
+     * Writes every change into the level.
+     *
+     * @param level the level to edit, the affected chunks are loaded if needed.
+     * @param physics whether to run block placement logic and neighbour updates for the changed positions.
+     * @param undo if not null, receives the previous state of every changed position, in undo order.
+     * @return int - number of positions that actually changed.
+     */
+    public int apply(ServerLevel level, boolean physics, @Nullable BlockEditBuffer undo) {
+        AsyncCatcher.catchOp("bulk block edit");
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        LongLinkedOpenHashSet changed = physics ? new LongLinkedOpenHashSet(this.positions.size()) : null;
+        LevelChunk chunk = null;
+        int changedCount = 0;
+
+        for (int i = 0; i < this.positions.size(); i++) {
+            long packed = this.positions.getLong(i);
+            pos.set(packed);
+            if (level.isOutsideBuildHeight(pos)) {
+                continue;
+            }
+            int chunkX = pos.getX() >> 4;
+            int chunkZ = pos.getZ() >> 4;
+            if (chunk == null || chunk.getPos().x != chunkX || chunk.getPos().z != chunkZ) {
+                chunk = level.getChunk(chunkX, chunkZ);
+            }
+
+            BlockState state = Block.stateById(this.states.getInt(i));
+            BlockState previous = chunk.getBlockState(pos);
+            CompoundTag blockEntityTag = this.blockEntityTags.get(i);
+            if (previous == state && blockEntityTag == null) {
+                continue;
+            }
+
+            BlockEntity previousBlockEntity = previous.hasBlockEntity() ? chunk.getBlockEntity(pos, LevelChunk.EntityCreationType.CHECK) : null;
+            if (undo != null) {
+                undo.add(packed, previous, previousBlockEntity != null ? previousBlockEntity.saveWithFullMetadata() : null);
+            }
+            // Same as /fill and /setblock, replaced containers are emptied instead of dropping their contents
+            Clearable.tryClear(previousBlockEntity);
+
+            chunk.prepareSetBlockState(physics);
+            BlockState replaced = chunk.setBlockState(pos, state, false);
+            chunk.prepareSetBlockState(true);
+
+            if (blockEntityTag != null) {
+                BlockEntity blockEntity = chunk.getBlockEntity(pos, LevelChunk.EntityCreationType.CHECK);
+                if (blockEntity != null) {
+                    blockEntity.load(blockEntityTag);
+                    blockEntity.setChanged();
+                }
+            }
+            if (replaced == null && blockEntityTag == null) {
+                continue;
+            }
+
+            BlockPos immutable = pos.immutable();
+            level.getChunkSource().blockChanged(immutable);
+            if (replaced != null) {
+                level.onBlockStateChange(immutable, replaced, state);
+            }
+            if (changed != null) {
+                changed.add(packed);
+            }
+            changedCount++;
+        }
+
+        if (changed != null) {
+            for (long packed : changed) {
+                pos.set(packed);
+                BlockState state = level.getBlockState(pos);
+                BlockPos immutable = pos.immutable();
+                level.blockUpdated(immutable, state.getBlock());
+                state.updateNeighbourShapes(level, immutable, Block.UPDATE_CLIENTS, 511);
+            }
+        }
+        if (undo != null) {
+            undo.reverse();
+        }
+        return changedCount;
+    }
+
+    private void reverse() {
+        for (int i = 0, j = this.positions.size() - 1; i < j; i++, j--) {
+            long pos = this.positions.getLong(i);
+            this.positions.set(i, this.positions.getLong(j));
+            this.positions.set(j, pos);
+            int state = this.states.getInt(i);
+            this.states.set(i, this.states.getInt(j));
+            this.states.set(j, state);
+            CompoundTag tag = this.blockEntityTags.get(i);
+            this.blockEntityTags.set(i, this.blockEntityTags.get(j));
+            this.blockEntityTags.set(j, tag);
+        }
+    }
+}
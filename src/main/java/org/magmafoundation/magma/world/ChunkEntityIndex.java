@@ -0,0 +1,141 @@
+/*
+ * Magma Server
+ * Copyright (C) 2019-2023.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.magmafoundation.magma.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMaps;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.AbortableIterationConsumer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.entity.EntitySection;
+import net.minecraft.world.level.entity.EntitySectionStorage;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Stream free access to the entities of a single chunk. Entities are read directly from the entity sections of the
+ * chunk instead of streaming and collecting the section storage, and per type counts are cached for the current game
+ * tick so repeated queries on the same chunk are answered from the cache.
+ */
+public final class ChunkEntityIndex {
+
+    private static final AABB EVERYWHERE = new AABB(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    private static final Map<ServerLevel, TypeCountCache> TYPE_COUNTS = new WeakHashMap<>();
+
+    private ChunkEntityIndex() {
+    }
+
+    /**
+     * Visits every entity stored in the sections of the given chunk. The entities are collected before the first call
+     * of the consumer, so it may remove or move them.
+     */
+    public static void forEachEntity(ServerLevel level, int chunkX, int chunkZ, Consumer<? super Entity> consumer) {
+        List<Entity> entities = new ArrayList<>();
+        walkEntities(level, chunkX, chunkZ, entities::add);
+        for (int i = 0; i < entities.size(); i++) {
+            consumer.accept(entities.get(i));
+        }
+    }
+
+    // Walks the live sections, the consumer must not change them
+    private static void walkEntities(ServerLevel level, int chunkX, int chunkZ, Consumer<Entity> consumer) {
+        EntitySectionStorage<Entity> storage = level.entityManager.getSectionStorage();
+        for (int y = level.getMinSection(); y < level.getMaxSection(); y++) {
+            EntitySection<Entity> section = storage.getSection(SectionPos.asLong(chunkX, y, chunkZ));
+            if (section != null && !section.isEmpty()) {
+                section.getEntities(EVERYWHERE, entity -> {
+                    consumer.accept(entity);
+                    return AbortableIterationConsumer.Continuation.CONTINUE;
+                });
+            }
+        }
+    }
+
+    /**
+     * @return the number of entities stored in the sections of the given chunk
+     */
+    public static int countEntities(ServerLevel level, int chunkX, int chunkZ) {
+        EntitySectionStorage<Entity> storage = level.entityManager.getSectionStorage();
+        int count = 0;
+        for (int y = level.getMinSection(); y < level.getMaxSection(); y++) {
+            EntitySection<Entity> section = storage.getSection(SectionPos.asLong(chunkX, y, chunkZ));
+            if (section != null) {
+                count += section.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return an unmodifiable view of the entity counts by type, shared with other callers until the next game tick
+     */
+    public static Object2IntMap<EntityType<?>> countEntitiesByType(ServerLevel level, int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        long gameTime = level.getGameTime();
+        // Plugins may query from async tasks, the cache maps are only touched while holding the lock
+        synchronized (TYPE_COUNTS) {
+            TypeCountCache cache = TYPE_COUNTS.computeIfAbsent(level, l -> new TypeCountCache());
+            if (cache.gameTime != gameTime) {
+                cache.gameTime = gameTime;
+                cache.chunks.clear();
+            }
+            Object2IntMap<EntityType<?>> counts = cache.chunks.get(key);
+            if (counts != null) {
+                return counts;
+            }
+        }
+
+        Object2IntOpenHashMap<EntityType<?>> map = new Object2IntOpenHashMap<>();
+        walkEntities(level, chunkX, chunkZ, entity -> map.addTo(entity.getType(), 1));
+        Object2IntMap<EntityType<?>> counts = Object2IntMaps.unmodifiable(map);
+        synchronized (TYPE_COUNTS) {
+            TypeCountCache cache = TYPE_COUNTS.computeIfAbsent(level, l -> new TypeCountCache());
+            if (cache.gameTime == gameTime) {
+                cache.chunks.put(key, counts);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return the number of block entities in the chunk, or {@code 0} if the chunk is not loaded
+     */
+    public static int countBlockEntities(ServerLevel level, int chunkX, int chunkZ) {
+        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+        return chunk == null ? 0 : chunk.getBlockEntities().size();
+    }
+
+    private static final class TypeCountCache {
+
+        private final Long2ObjectOpenHashMap<Object2IntMap<EntityType<?>>> chunks = new Long2ObjectOpenHashMap<>();
+        private long gameTime = Long.MIN_VALUE;
+    }
+}
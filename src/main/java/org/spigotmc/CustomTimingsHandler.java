@@ -122,6 +122,23 @@ public class CustomTimingsHandler {
         }
     }
 
+    /**
+     * Adds a section timed by the caller, for hot paths that measure once and
+     * report to several trackers.
+     *
+     * @param diff elapsed time in nanoseconds
+     */
+    public void addTiming(long diff) {
+        if (Bukkit.getPluginManager().useTimings() && timingDepth == 0) {
+            totalTime += diff;
+            curTickTotal += diff;
+            count++;
+            if (parent != null) {
+                parent.addTiming(diff);
+            }
+        }
+    }
+
     /**
      * Reset this timer, setting all values to zero.
      */
@@ -2,19 +2,19 @@ package org.spigotmc;
 
 public class TickLimiter {
 
-    private final int maxTime;
+    private final long maxTime;
     private long startTime;
 
     public TickLimiter(int maxtime) {
-        this.maxTime = maxtime;
+        this.maxTime = maxtime * 1000000L; // Magma - use nanoTime, currentTimeMillis is too coarse for a 50ms budget
     }
 
     public void initTick() {
-        startTime = System.currentTimeMillis();
+        startTime = System.nanoTime();
     }
 
     public boolean shouldContinue() {
-        long remaining = System.currentTimeMillis() - startTime;
+        long remaining = System.nanoTime() - startTime;
         return remaining < maxTime;
     }
 }
\ No newline at end of file